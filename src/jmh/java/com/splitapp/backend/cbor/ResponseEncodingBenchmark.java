@@ -0,0 +1,109 @@
+package com.splitapp.backend.cbor;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.splitapp.backend.dto.CompactExpensePage;
+import com.splitapp.backend.model.Expense;
+import com.splitapp.backend.model.Person;
+import com.splitapp.backend.service.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding one {@code GET /expenses} page, with the same Jackson settings as the application.
+ * <ul>
+ *     <li>entity-json: the JSON page, entities with a nested payer on every expense</li>
+ *     <li>flat-json: the flat page (payers by id plus a people dictionary) as JSON</li>
+ *     <li>flat-cbor: the flat page as CBOR, as served for {@code Accept: application/cbor}</li>
+ * </ul>
+ * The time is serialization CPU (plus compression with gzip=true); the encoded size is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+	private static final int PEOPLE = 50;
+
+	@Param({"entity-json", "flat-json", "flat-cbor"})
+	public String format;
+
+	@Param({"false", "true"})
+	public boolean gzip;
+
+	@Param({"100", "1000"})
+	public int items;
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+	private ObjectWriter writer;
+	private Object page;
+
+	@Setup
+	public void setUp() {
+		List<Person> people = new ArrayList<>(PEOPLE);
+		for (long id = 1; id <= PEOPLE; id++) {
+			Person person = new Person("person-" + id);
+			person.setId(id);
+			people.add(person);
+		}
+		Random random = new Random(42);
+		List<Expense> expenses = new ArrayList<>(items);
+		for (int i = 0; i < items; i++) {
+			Expense expense = new Expense("Expense " + i, Money.toDecimal(100 + random.nextInt(100_000)), people.get(random.nextInt(PEOPLE)));
+			expense.setId((long) i + 1);
+			if (random.nextBoolean()) {
+				expense.setGroupId((long) random.nextInt(10) + 1);
+			}
+			expenses.add(expense);
+		}
+
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		switch (format) {
+			case "entity-json" -> {
+				Map<String, Object> entityPage = new LinkedHashMap<>();
+				entityPage.put("items", expenses);
+				entityPage.put("nextCursor", "MjAyNS0wMS0wMVQwMDowMDowMHwxMjM0NQ");
+				page = entityPage;
+				writer = builder.build().writer();
+			}
+			case "flat-json" -> {
+				page = CompactExpensePage.of(expenses, "MjAyNS0wMS0wMVQwMDowMDowMHwxMjM0NQ");
+				writer = builder.build().writer();
+			}
+			case "flat-cbor" -> {
+				page = CompactExpensePage.of(expenses, "MjAyNS0wMS0wMVQwMDowMDowMHwxMjM0NQ");
+				writer = builder.factory(new CborFactory()).build().writer();
+			}
+			default -> throw new IllegalArgumentException("Unknown format " + format);
+		}
+		try {
+			System.out.printf("%n%s, gzip=%s, %d items: %d bytes on the wire%n", format, gzip, items, encode());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Benchmark
+	public int encode() throws IOException {
+		buffer.reset();
+		try (OutputStream out = gzip ? new GZIPOutputStream(buffer) : buffer) {
+			writer.writeValue(out, page);
+		}
+		return buffer.size();
+	}
+}
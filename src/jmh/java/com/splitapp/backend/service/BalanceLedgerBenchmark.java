@@ -0,0 +1,92 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.model.Expense;
+import com.splitapp.backend.model.ExpenseSplit;
+import com.splitapp.backend.model.Person;
+import com.splitapp.backend.service.money.Money;
+import com.splitapp.backend.service.money.SplitCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance ledger over synthetic data sets, backed by {@link InMemoryRepositories}.
+ * People come in households of {@value #HOUSEHOLD} who only share expenses among themselves;
+ * each household is also an expense group. Every expense has {@value #PARTICIPANTS} participants.
+ * <ul>
+ *     <li>applyExpenses: turn every split of the data set into ledger entries (the batch write path)</li>
+ *     <li>getBalances: read the resulting ledger</li>
+ *     <li>getBalanceComponents: split the ledger into independent components for settlement</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BalanceLedgerBenchmark {
+
+	private static final int HOUSEHOLD = 20;
+	private static final int PARTICIPANTS = 5;
+
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int splits;
+
+	private BalanceLedgerService ledger;
+	private List<Expense> expenses;
+	private List<ExpenseSplit> expenseSplits;
+
+	@Setup
+	public void setUp() {
+		InMemoryRepositories repos = new InMemoryRepositories();
+		int peopleCount = Math.max(HOUSEHOLD, splits / 10);
+		List<Person> people = new ArrayList<>(peopleCount);
+		for (long id = 1; id <= peopleCount; id++) {
+			Person p = new Person("person-" + id);
+			p.setId(id);
+			people.add(p);
+			repos.people.put(id, p);
+		}
+
+		Random random = new Random(42);
+		expenses = new ArrayList<>(splits / PARTICIPANTS);
+		expenseSplits = new ArrayList<>(splits);
+		for (int i = 0; i < splits / PARTICIPANTS; i++) {
+			int household = random.nextInt(peopleCount / HOUSEHOLD);
+			Person payer = people.get(household * HOUSEHOLD + random.nextInt(HOUSEHOLD));
+			Expense expense = new Expense("Expense " + i, Money.toDecimal(100 + random.nextInt(100_000)), payer);
+			expense.setGroupId((long) household + 1);
+			expenses.add(expense);
+
+			long[] owed = SplitCalculator.owed("EQUAL", Money.toMinor(expense.getAmount()), null, PARTICIPANTS);
+			for (int j = 0; j < PARTICIPANTS; j++) {
+				Person participant = people.get(household * HOUSEHOLD + random.nextInt(HOUSEHOLD));
+				expenseSplits.add(new ExpenseSplit(expense, participant, Money.toDecimal(owed[j]), "EQUAL", null));
+			}
+		}
+
+		ledger = repos.ledger();
+		ledger.applyExpenses(expenses, expenseSplits);
+	}
+
+	@Benchmark
+	public BalanceLedgerService applyExpenses() {
+		ledger.applyExpenses(expenses, expenseSplits);
+		return ledger;
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> getBalances() {
+		return ledger.getBalances();
+	}
+
+	@Benchmark
+	public List<Map<String, Long>> getBalanceComponents() {
+		return ledger.getBalanceComponents();
+	}
+}
@@ -0,0 +1,106 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.model.Person;
+import com.splitapp.backend.repository.*;
+import com.splitapp.backend.service.money.Money;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * In-memory stand-ins for the repositories behind {@link BalanceLedgerService}, so ledger code can be
+ * benchmarked without a database. Only the methods the ledger's write and read paths call are implemented;
+ * anything else throws UnsupportedOperationException.
+ */
+final class InMemoryRepositories {
+
+	final Map<Long, Person> people = new HashMap<>();
+	final Map<Long, Long> balances = new HashMap<>();
+	final Set<List<Long>> links = new HashSet<>();
+	final Map<List<Long>, Long> groupBalances = new HashMap<>();
+
+	/**
+	 * A ledger wired to these stand-ins. The data version never changes.
+	 */
+	BalanceLedgerService ledger() {
+		DataVersionService dataVersion = new DataVersionService(null, false) {
+			@Override
+			public void bumpAfterCommit() {
+			}
+		};
+		return new BalanceLedgerService(entryRepo(), stub(LedgerSnapshotRepository.class, (name, args) ->
+				"findTopByOrderByIdDesc".equals(name) ? Optional.empty() : null),
+				stub(PersonRepository.class, (name, args) -> null), stub(ExpenseRepository.class, (name, args) -> null),
+				stub(ExpenseSplitRepository.class, (name, args) -> null), linkRepo(), groupRepo(), dataVersion, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Appended entries are folded straight into running totals, as if every append were followed by a snapshot.
+	 */
+	private LedgerEntryRepository entryRepo() {
+		return stub(LedgerEntryRepository.class, (name, args) -> switch (name) {
+			case "append" -> {
+				Long[] groupIds = (Long[]) args[3];
+				Long[] personIds = (Long[]) args[4];
+				Long[] amounts = (Long[]) args[5];
+				for (int i = 0; i < personIds.length; i++) {
+					balances.merge(personIds[i], amounts[i], Long::sum);
+					if (groupIds[i] != null) {
+						groupBalances.merge(List.of(groupIds[i], personIds[i]), amounts[i], Long::sum);
+					}
+				}
+				yield Boolean.TRUE;
+			}
+			case "findBalancesSince" -> {
+				// Materialise fresh rows on every call, like a query would
+				List<Object[]> rows = new ArrayList<>(balances.size());
+				balances.forEach((id, balance) -> rows.add(new Object[]{id, people.get(id).getName(), Money.toDecimal(balance)}));
+				yield rows;
+			}
+			default -> null;
+		});
+	}
+
+	private PersonLinkRepository linkRepo() {
+		return stub(PersonLinkRepository.class, (name, args) -> switch (name) {
+			case "insertLinks" -> {
+				Long[] low = (Long[]) args[0];
+				Long[] high = (Long[]) args[1];
+				for (int i = 0; i < low.length; i++) {
+					links.add(List.of(low[i], high[i]));
+				}
+				yield Boolean.TRUE;
+			}
+			case "findAllPairs" -> links.stream().map(l -> new Object[]{l.get(0), l.get(1)}).toList();
+			default -> null;
+		});
+	}
+
+	private ExpenseGroupRepository groupRepo() {
+		return stub(ExpenseGroupRepository.class, (name, args) -> "bumpDataVersions".equals(name) ? Boolean.TRUE : null);
+	}
+
+	/**
+	 * Proxies the repository interface: the handler returns a result, or null for methods it does not implement.
+	 * Void methods should return a non-null placeholder.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> handler) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			if (method.getDeclaringClass() == Object.class) {
+				return switch (method.getName()) {
+					case "equals" -> proxy == args[0];
+					case "hashCode" -> System.identityHashCode(proxy);
+					default -> "in-memory " + type.getSimpleName();
+				};
+			}
+			Object result = handler.apply(method.getName(), args);
+			if (result == null) {
+				throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not available in memory");
+			}
+			return method.getReturnType() == void.class ? null : result;
+		});
+	}
+}
@@ -0,0 +1,83 @@
+package com.splitapp.backend.service.money;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-expense split math (what ExpenseService.buildSplits runs for every expense), for each split type, against the
+ * BigDecimal arithmetic it replaced. Run with {@code -prof gc} to compare allocation per split:
+ * {@code mvn -Pjmh verify -Djmh.includes=SplitCalculator -Djmh.options="-prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitCalculatorBenchmark {
+
+	@Param({"EQUAL", "EXACT", "PERCENTAGE"})
+	public String splitType;
+
+	@Param({"2", "10", "100"})
+	public int participants;
+
+	private BigDecimal amount;
+	private long total;
+	private List<BigDecimal> shareValues;
+
+	@Setup
+	public void setUp() {
+		amount = new BigDecimal("1234.56");
+		total = Money.toMinor(amount);
+		shareValues = new ArrayList<>(participants);
+		switch (splitType) {
+			case "EXACT" -> {
+				long[] owed = Money.allocateEqually(total, participants);
+				for (long o : owed) {
+					shareValues.add(Money.toDecimal(o));
+				}
+			}
+			case "PERCENTAGE" -> {
+				// Uneven percentages with four decimals, as clients send them
+				long[] units = Money.allocateEqually(Money.toPercentUnits(BigDecimal.valueOf(100)), participants);
+				for (long u : units) {
+					shareValues.add(BigDecimal.valueOf(u, Money.PERCENT_SCALE));
+				}
+			}
+			default -> shareValues = null;
+		}
+	}
+
+	@Benchmark
+	public long[] owed() {
+		return SplitCalculator.owed(splitType, total, shareValues, participants);
+	}
+
+	@Benchmark
+	public BigDecimal[] owedAsStoredAmounts() {
+		return SplitCalculator.owedAmounts(splitType, total, shareValues, participants);
+	}
+
+	/**
+	 * Baseline: the BigDecimal split arithmetic used before minor units, which also rounded EQUAL and PERCENTAGE
+	 * splits per participant, so their shares could miss the amount by a few cents.
+	 */
+	@Benchmark
+	public BigDecimal[] bigDecimalStoredAmounts() {
+		BigDecimal[] stored = new BigDecimal[participants];
+		for (int i = 0; i < participants; i++) {
+			stored[i] = switch (splitType) {
+				case "EXACT" -> shareValues.get(i);
+				case "PERCENTAGE" -> amount.multiply(shareValues.get(i)).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+				default -> amount.divide(BigDecimal.valueOf(participants), 2, RoundingMode.HALF_UP);
+			};
+		}
+		return stored;
+	}
+}
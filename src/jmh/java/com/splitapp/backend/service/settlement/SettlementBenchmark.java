@@ -0,0 +1,94 @@
+package com.splitapp.backend.service.settlement;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settlement at different debt graph sizes and shapes, for each strategy.
+ * <ul>
+ *     <li>random: one component, random balances</li>
+ *     <li>star: one component, one person paid for everybody</li>
+ *     <li>clustered: many independent components of four people (settled in parallel)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementBenchmark {
+
+	private static final int CLUSTER_SIZE = 4;
+
+	@Param({"greedy", "optimal"})
+	public String strategy;
+
+	@Param({"random", "star", "clustered"})
+	public String shape;
+
+	@Param({"16", "256", "4096"})
+	public int people;
+
+	private SettlementEngine engine;
+	private List<Map<String, Long>> components;
+
+	@Setup
+	public void setUp() {
+		engine = new SettlementEngine(List.of(new GreedySettlementStrategy(), new MinTransfersSettlementStrategy()),
+				Duration.ofMillis(200), 0);
+		Random random = new Random(42);
+		components = switch (shape) {
+			case "star" -> List.of(star(random, 0, people));
+			case "clustered" -> {
+				List<Map<String, Long>> clusters = new ArrayList<>();
+				for (int from = 0; from < people; from += CLUSTER_SIZE) {
+					clusters.add(randomBalances(random, from, Math.min(CLUSTER_SIZE, people - from)));
+				}
+				yield clusters;
+			}
+			default -> List.of(randomBalances(random, 0, people));
+		};
+	}
+
+	@TearDown
+	public void tearDown() {
+		engine.shutdown();
+	}
+
+	@Benchmark
+	public SettlementReport settle() {
+		return engine.settle(strategy, components);
+	}
+
+	private static Map<String, Long> randomBalances(Random random, int firstId, int size) {
+		Map<String, Long> balances = new HashMap<>();
+		long sum = 0;
+		for (int i = 0; i < size - 1; i++) {
+			long cents = random.nextInt(200_000) - 100_000;
+			balances.put("p" + (firstId + i), cents);
+			sum += cents;
+		}
+		balances.put("p" + (firstId + size - 1), -sum); // Every component nets to zero
+		return balances;
+	}
+
+	private static Map<String, Long> star(Random random, int firstId, int size) {
+		Map<String, Long> balances = new HashMap<>();
+		long paid = 0;
+		for (int i = 1; i < size; i++) {
+			long cents = 1 + random.nextInt(10_000);
+			balances.put("p" + (firstId + i), -cents);
+			paid += cents;
+		}
+		balances.put("p" + firstId, paid);
+		return balances;
+	}
+}
@@ -0,0 +1,88 @@
+package com.splitapp.backend.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and response statuses of one endpoint. Keeps every sample, so percentiles are exact.
+ */
+final class LatencyRecorder {
+
+	static final String TRANSPORT_ERROR = "error";
+	static final String DROPPED = "dropped";
+
+	private long[] latencies = new long[1024];
+	private int count;
+	private final Map<String, Long> outcomes = new TreeMap<>();
+
+	synchronized void record(long latencyNanos, int status) {
+		if (count == latencies.length) {
+			latencies = Arrays.copyOf(latencies, count * 2);
+		}
+		latencies[count++] = latencyNanos;
+		outcomes.merge(Integer.toString(status), 1L, Long::sum);
+	}
+
+	/**
+	 * A request that got no response (connection failure, timeout).
+	 */
+	synchronized void recordError() {
+		outcomes.merge(TRANSPORT_ERROR, 1L, Long::sum);
+	}
+
+	/**
+	 * A request that was due but not sent because too many were in flight: the client, not the server, was the limit.
+	 */
+	synchronized void recordDropped() {
+		outcomes.merge(DROPPED, 1L, Long::sum);
+	}
+
+	synchronized Summary summarize(double seconds) {
+		long[] sorted = Arrays.copyOf(latencies, count);
+		Arrays.sort(sorted);
+		long errors = outcomes.entrySet().stream()
+				.filter(e -> e.getKey().equals(TRANSPORT_ERROR) || (!e.getKey().equals(DROPPED) && Integer.parseInt(e.getKey()) >= 400))
+				.mapToLong(Map.Entry::getValue)
+				.sum();
+		return new Summary(count, count / seconds, errors, outcomes.getOrDefault(DROPPED, 0L), Map.copyOf(outcomes),
+				millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)), millis(percentile(sorted, 0.99)),
+				millis(percentile(sorted, 0.999)), millis(count == 0 ? 0 : sorted[count - 1]));
+	}
+
+	/**
+	 * Merge several recorders, for the all-endpoints row.
+	 */
+	static LatencyRecorder combine(Iterable<LatencyRecorder> recorders) {
+		LatencyRecorder total = new LatencyRecorder();
+		for (LatencyRecorder recorder : recorders) {
+			synchronized (recorder) {
+				total.latencies = Arrays.copyOf(total.latencies, total.count + recorder.count);
+				System.arraycopy(recorder.latencies, 0, total.latencies, total.count, recorder.count);
+				total.count += recorder.count;
+				recorder.outcomes.forEach((outcome, n) -> total.outcomes.merge(outcome, n, Long::sum));
+			}
+		}
+		return total;
+	}
+
+	// Nearest rank
+	private static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+	}
+
+	private static double millis(long nanos) {
+		return Math.round(nanos / 1_000.0) / 1_000.0;
+	}
+
+	/**
+	 * Report row. Throughput counts answered requests per second of the measured window; latencies are in ms.
+	 * Dropped requests were due but never sent, so the client could not keep up the rate and the run is not valid.
+	 */
+	record Summary(long requests, double throughput, long errors, long dropped, Map<String, Long> outcomes,
+				   double p50, double p90, double p99, double p999, double max) {
+	}
+}
@@ -0,0 +1,116 @@
+package com.splitapp.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.splitapp.backend.loadtest.LatencyRecorder.Summary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * One load test run: settings, the seeding rate of each write path (expenses per second), and a summary per
+ * endpoint plus an "all" row. Written as JSON (for diffing and
+ * as a later baseline) and as an HTML table that shows the change against a baseline report, if one is given.
+ */
+record LoadReport(Instant startedAt, String javaVersion, LoadTestConfig config, Map<String, Double> ingestRates,
+				  Map<String, Summary> endpoints) {
+
+	static final String ALL = "all";
+
+	private static final ObjectMapper JSON = new ObjectMapper()
+			.registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+			.enable(SerializationFeature.INDENT_OUTPUT);
+	private static final String[] LATENCY_COLUMNS = {"p50", "p90", "p99", "p999", "max"};
+
+	/**
+	 * Write {@code loadtest-<time>.json} and {@code .html} to the report directory; returns the JSON file.
+	 */
+	Path write() throws IOException {
+		Files.createDirectories(config.reportDir());
+		String name = "loadtest-" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(startedAt);
+		Path json = config.reportDir().resolve(name + ".json");
+		JSON.writerFor(LoadReport.class).writeValue(json.toFile(), this);
+		JsonNode baseline = config.baseline() == null ? null : JSON.readTree(config.baseline().toFile()).path("endpoints");
+		Files.writeString(config.reportDir().resolve(name + ".html"), html(baseline));
+		return json;
+	}
+
+	/**
+	 * Plain-text table for the console.
+	 */
+	String table() {
+		StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-28s %9s %9s %7s %8s %9s %9s %9s %9s %9s%n",
+				"endpoint", "requests", "req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+		endpoints.forEach((endpoint, s) -> out.append(String.format(Locale.ROOT, "%-28s %9d %9.1f %7d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+				endpoint, s.requests(), s.throughput(), s.errors(), s.dropped(), s.p50(), s.p90(), s.p99(), s.p999(), s.max())));
+		out.append(ingest());
+		if (endpoints.get(ALL).dropped() > 0) {
+			out.append("Requests were dropped at loadtest.max-in-flight: the target rate was not sent, lower it or raise the limit\n");
+		}
+		return out.toString();
+	}
+
+	private String html(JsonNode baseline) {
+		StringBuilder out = new StringBuilder("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Load test ")
+				.append(startedAt).append("</title>\n<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+				.append("td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}td:first-child{text-align:left}")
+				.append(".worse{color:#b00}.better{color:#070}</style></head><body>\n<h1>Load test ").append(startedAt).append("</h1>\n<p>")
+				.append(config.rate()).append(" req/s for ").append(config.duration()).append(" after ").append(config.warmup())
+				.append(" warmup, ").append(config.people()).append(" people, ").append(config.expenses()).append(" seeded expenses, mix ")
+				.append(escape(config.mix().toString())).append(", seed ").append(config.seed()).append(", Java ").append(escape(javaVersion))
+				.append("</p>\n<p>").append(escape(ingest().strip())).append("</p>\n");
+		if (baseline != null) {
+			out.append("<p>Changes against ").append(escape(config.baseline().toString())).append("</p>\n");
+		}
+		out.append("<table>\n<tr><th>Endpoint</th><th>Requests</th><th>req/s</th><th>Errors</th><th>Dropped</th><th>Outcomes</th>")
+				.append("<th>p50 ms</th><th>p90 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>max ms</th></tr>\n");
+		endpoints.forEach((endpoint, s) -> {
+			Map<String, Double> latencies = new LinkedHashMap<>();
+			latencies.put("p50", s.p50());
+			latencies.put("p90", s.p90());
+			latencies.put("p99", s.p99());
+			latencies.put("p999", s.p999());
+			latencies.put("max", s.max());
+			JsonNode before = baseline == null ? null : baseline.get(endpoint);
+			out.append("<tr><td>").append(escape(endpoint)).append("</td><td>").append(s.requests())
+					.append("</td><td>").append(String.format(Locale.ROOT, "%.1f", s.throughput())).append(change(s.throughput(), before, "throughput", true))
+					.append("</td><td>").append(s.errors()).append("</td><td>").append(s.dropped()).append("</td><td>").append(escape(s.outcomes().toString())).append("</td>");
+			for (String column : LATENCY_COLUMNS) {
+				out.append("<td>").append(String.format(Locale.ROOT, "%.2f", latencies.get(column)))
+						.append(change(latencies.get(column), before, column, false)).append("</td>");
+			}
+			out.append("</tr>\n");
+		});
+		return out.append("</table>\n</body></html>\n").toString();
+	}
+
+	private String ingest() {
+		StringJoiner out = new StringJoiner(", ", "Seeding rate: ", "\n");
+		ingestRates.forEach((path, rate) -> out.add(String.format(Locale.ROOT, "%s %.0f expenses/s", path, rate)));
+		return out.toString();
+	}
+
+	private static String change(double now, JsonNode before, String field, boolean higherIsBetter) {
+		if (before == null || !before.has(field) || before.get(field).asDouble() == 0) {
+			return "";
+		}
+		double percent = (now / before.get(field).asDouble() - 1) * 100;
+		String css = Math.abs(percent) < 5 ? "" : (percent > 0) == higherIsBetter ? " class=\"better\"" : " class=\"worse\"";
+		return String.format(Locale.ROOT, " <small%s>(%+.0f%%)</small>", css, percent);
+	}
+
+	private static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+}
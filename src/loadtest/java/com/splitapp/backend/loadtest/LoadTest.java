@@ -0,0 +1,272 @@
+package com.splitapp.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitapp.backend.SplitappApplication;
+import com.splitapp.backend.dto.BatchItemResult;
+import com.splitapp.backend.dto.ExpenseRequest;
+import com.splitapp.backend.service.ExpenseBatchService;
+import com.splitapp.backend.service.ExpenseService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of the expense API: boots the application against an embedded PostgreSQL, seeds people and expenses,
+ * then sends a weighted mix of requests at a fixed rate and reports throughput and latency percentiles per endpoint.
+ * Needs nothing outside the JVM. Run with {@code mvn -Ploadtest verify}; settings are in {@link LoadTestConfig}.
+ * <p>
+ * Requests go out on schedule whether or not earlier ones have been answered (an open model), and latency is
+ * measured from when a request was due rather than when it was sent, so a stalled server shows up as latency
+ * instead of as a quietly lower request rate. The request sequence depends only on the seed.
+ * <p>
+ * Seeding also compares the two write paths: its first chunk is added one {@code addExpense} call at a time,
+ * the second as one batch, and both rates go into the report.
+ */
+public final class LoadTest {
+
+	private static final int SEED_CHUNK = 1000;
+
+	private final LoadTestConfig config;
+	private final Random random;
+	private final ObjectMapper json = new ObjectMapper();
+	private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+	private final ExpenseIds expenseIds = new ExpenseIds();
+	private final Operation[] wheel; // One slot per unit of weight
+	private final Map<String, Double> ingestRates = new LinkedHashMap<>(); // Expenses per second, per write path
+	private String baseUrl;
+
+	private LoadTest(LoadTestConfig config) {
+		this.config = config;
+		this.random = new Random(config.seed());
+		List<Operation> slots = new ArrayList<>();
+		config.mix().forEach((operation, weight) -> {
+			for (int i = 0; i < weight; i++) {
+				slots.add(operation);
+			}
+			if (weight > 0) {
+				recorders.put(operation, new LatencyRecorder());
+			}
+		});
+		this.wheel = slots.toArray(new Operation[0]);
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTest loadTest = new LoadTest(LoadTestConfig.fromSystemProperties());
+		try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+			 ConfigurableApplicationContext context = new SpringApplicationBuilder(SplitappApplication.class).run(
+					 "--server.port=0",
+					 "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+					 "--spring.datasource.username=postgres",
+					 "--spring.datasource.password=postgres",
+					 "--spring.main.banner-mode=off",
+					 "--logging.level.root=WARN")) {
+			loadTest.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/expenses";
+			loadTest.seed(context.getBean(ExpenseService.class), context.getBean(ExpenseBatchService.class));
+			LoadReport report = loadTest.run();
+			System.out.print(report.table());
+			System.out.println("Report: " + report.write().toAbsolutePath());
+		}
+	}
+
+	private void seed(ExpenseService expenseService, ExpenseBatchService batchService) {
+		long start = System.nanoTime();
+		int sample = Math.min(SEED_CHUNK, config.expenses() / 2);
+		for (int i = 0; i < sample; i++) {
+			ExpenseRequest r = randomExpense();
+			expenseIds.add(expenseService.addExpense(r.getDescription(), r.getAmount(), r.getPaidBy(), r.getParticipants(),
+					r.getSplitType(), r.getShareValues()).getId());
+		}
+		ingestRates.put("addExpense", sample / ((System.nanoTime() - start) / 1e9));
+
+		long batchStart = System.nanoTime();
+		addBatch(batchService, sample);
+		ingestRates.put("batch", sample / ((System.nanoTime() - batchStart) / 1e9));
+
+		for (int offset = 2 * sample; offset < config.expenses(); offset += SEED_CHUNK) {
+			addBatch(batchService, Math.min(SEED_CHUNK, config.expenses() - offset));
+		}
+		System.out.printf("Seeded %d expenses between %d people in %d ms%n", config.expenses(), config.people(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	private void addBatch(ExpenseBatchService batchService, int size) {
+		List<ExpenseRequest> chunk = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			chunk.add(randomExpense());
+		}
+		for (BatchItemResult result : batchService.addExpenses(chunk)) {
+			if (!result.isSuccess()) {
+				throw new IllegalStateException("Seeding failed: " + result.getMessage());
+			}
+			expenseIds.add(result.getId());
+		}
+	}
+
+	private LoadReport run() throws Exception {
+		Instant startedAt = Instant.now();
+		ExecutorService responses = Executors.newFixedThreadPool(4);
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.executor(responses)
+				.build();
+		Semaphore inFlight = new Semaphore(config.maxInFlight());
+
+		long start = System.nanoTime();
+		long measureFrom = start + config.warmup().toNanos();
+		long end = measureFrom + config.duration().toNanos();
+		for (long i = 0; ; i++) {
+			long due = start + (long) (i * 1e9 / config.rate());
+			if (due >= end) {
+				break;
+			}
+			long wait = due - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+
+			Operation operation = wheel[random.nextInt(wheel.length)];
+			LatencyRecorder recorder = measureFrom <= due ? recorders.get(operation) : null; // null during warmup
+			if (!inFlight.tryAcquire()) {
+				if (recorder != null) {
+					recorder.recordDropped();
+				}
+				continue;
+			}
+			HttpRequest request = request(operation);
+			client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+				long latency = System.nanoTime() - due;
+				inFlight.release();
+				if (error != null) {
+					if (recorder != null) {
+						recorder.recordError();
+					}
+					return;
+				}
+				if (recorder != null) {
+					recorder.record(latency, response.statusCode());
+				}
+				if (operation == Operation.ADD && response.statusCode() == 200) {
+					expenseIds.add(createdId(response.body()));
+				}
+			});
+		}
+		if (!inFlight.tryAcquire(config.maxInFlight(), 60, TimeUnit.SECONDS)) {
+			System.err.println("Some requests were still unanswered after 60s");
+		}
+		responses.shutdown();
+
+		double seconds = config.duration().toNanos() / 1e9;
+		Map<String, LatencyRecorder.Summary> endpoints = new LinkedHashMap<>();
+		recorders.forEach((operation, recorder) -> endpoints.put(operation.endpoint(), recorder.summarize(seconds)));
+		endpoints.put(LoadReport.ALL, LatencyRecorder.combine(recorders.values()).summarize(seconds));
+		return new LoadReport(startedAt, System.getProperty("java.version"), config, ingestRates, endpoints);
+	}
+
+	/**
+	 * The next request of the given type. Updates and deletes pick a random known expense; when none is left
+	 * (every seeded expense deleted), an add is sent under the update or delete label instead.
+	 */
+	private HttpRequest request(Operation operation) throws Exception {
+		Long id = null;
+		if (operation.targetsExpense()) {
+			id = operation == Operation.DELETE ? expenseIds.removeRandom(random) : expenseIds.random(random);
+		}
+		HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30)).header("Content-Type", "application/json");
+		if (operation.targetsExpense() && id == null || operation == Operation.ADD) {
+			return builder.uri(URI.create(baseUrl)).POST(body(randomExpense())).build();
+		}
+		return switch (operation) {
+			case UPDATE -> builder.uri(URI.create(baseUrl + "/" + id)).PUT(body(randomExpense())).build();
+			case DELETE -> builder.uri(URI.create(baseUrl + "/" + id)).DELETE().build();
+			case BALANCES -> builder.uri(URI.create(baseUrl + "/balances")).GET().build();
+			case SETTLEMENTS -> builder.uri(URI.create(baseUrl + "/settlements")).GET().build();
+			case LIST -> builder.uri(URI.create(baseUrl + "?limit=50&payer=" + person(random.nextInt(config.people())))).GET().build();
+			case ADD -> throw new IllegalStateException("Handled above");
+		};
+	}
+
+	private HttpRequest.BodyPublisher body(ExpenseRequest expense) throws Exception {
+		return HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(expense));
+	}
+
+	/**
+	 * Equal split of 1.00 to 500.00 between 2 to 5 different people, one of whom paid.
+	 */
+	private ExpenseRequest randomExpense() {
+		int size = 2 + random.nextInt(Math.min(4, config.people() - 1));
+		List<String> participants = new ArrayList<>();
+		while (participants.size() < size) {
+			String person = person(random.nextInt(config.people()));
+			if (!participants.contains(person)) {
+				participants.add(person);
+			}
+		}
+		ExpenseRequest expense = new ExpenseRequest();
+		expense.setDescription("Load test expense");
+		expense.setAmount(BigDecimal.valueOf(100 + random.nextInt(49_901), 2));
+		expense.setPaidBy(participants.get(0));
+		expense.setParticipants(participants);
+		expense.setSplitType("EQUAL");
+		return expense;
+	}
+
+	private static String person(int index) {
+		return String.format("person-%05d", index);
+	}
+
+	private Long createdId(String body) {
+		try {
+			return json.readTree(body).path("data").path("id").asLong();
+		} catch (Exception e) {
+			throw new IllegalStateException("Unexpected add response: " + body, e);
+		}
+	}
+
+	/**
+	 * Ids of expenses that exist (as far as this client knows), for updates and deletes.
+	 */
+	private static final class ExpenseIds {
+
+		private final List<Long> ids = new ArrayList<>();
+
+		synchronized void add(Long id) {
+			ids.add(id);
+		}
+
+		synchronized Long random(Random random) {
+			return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+		}
+
+		synchronized Long removeRandom(Random random) {
+			if (ids.isEmpty()) {
+				return null;
+			}
+			int index = random.nextInt(ids.size());
+			Long id = ids.get(index);
+			ids.set(index, ids.get(ids.size() - 1)); // Swap with the last one to keep removal O(1)
+			ids.remove(ids.size() - 1);
+			return id;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.splitapp.backend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties (defaults in the {@code loadtest} profile).
+ */
+record LoadTestConfig(int rate,
+					  Duration warmup,
+					  Duration duration,
+					  int people,
+					  int expenses,
+					  Map<Operation, Integer> mix,
+					  long seed,
+					  int maxInFlight,
+					  Path reportDir,
+					  Path baseline) {
+
+	static LoadTestConfig fromSystemProperties() {
+		String baseline = System.getProperty("loadtest.baseline", "");
+		LoadTestConfig config = new LoadTestConfig(
+				Integer.parseInt(System.getProperty("loadtest.rate", "100")),
+				Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+				Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+				Integer.parseInt(System.getProperty("loadtest.people", "200")),
+				Integer.parseInt(System.getProperty("loadtest.expenses", "10000")),
+				parseMix(System.getProperty("loadtest.mix", "add:30,update:10,delete:5,balances:30,settlements:15,list:10")),
+				Long.parseLong(System.getProperty("loadtest.seed", "42")),
+				Integer.parseInt(System.getProperty("loadtest.max-in-flight", "512")),
+				Path.of(System.getProperty("loadtest.report-dir", "target/loadtest")),
+				baseline.isBlank() ? null : Path.of(baseline));
+		if (config.rate <= 0 || config.maxInFlight <= 0 || config.duration.isNegative() || config.duration.isZero() || config.warmup.isNegative()) {
+			throw new IllegalArgumentException("Rate, max in-flight and duration must be positive, warmup not negative");
+		}
+		if (config.people < 2) {
+			throw new IllegalArgumentException("At least 2 people are needed to split expenses");
+		}
+		return config;
+	}
+
+	/**
+	 * Parse weights like {@code add:30,balances:70}; operations left out are not sent.
+	 */
+	static Map<Operation, Integer> parseMix(String spec) {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		for (String entry : spec.split(",")) {
+			String[] parts = entry.trim().split(":");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected operation:weight");
+			}
+			int weight = Integer.parseInt(parts[1].trim());
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight for " + parts[0]);
+			}
+			mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+		}
+		if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+			throw new IllegalArgumentException("The mix has no operation with a positive weight");
+		}
+		return mix;
+	}
+}
@@ -0,0 +1,34 @@
+package com.splitapp.backend.loadtest;
+
+/**
+ * Request types in the load mix, keyed in {@code loadtest.mix} by their lower-case name.
+ */
+enum Operation {
+
+	ADD("POST /expenses"),
+	UPDATE("PUT /expenses/{id}"),
+	DELETE("DELETE /expenses/{id}"),
+	BALANCES("GET /expenses/balances"),
+	SETTLEMENTS("GET /expenses/settlements"),
+	LIST("GET /expenses");
+
+	private final String endpoint;
+
+	Operation(String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * Endpoint label used in reports.
+	 */
+	String endpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * Whether the operation needs an existing expense id.
+	 */
+	boolean targetsExpense() {
+		return this == UPDATE || this == DELETE;
+	}
+}
@@ -0,0 +1,202 @@
+package com.splitapp.backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup time of the packaged application in each startup mode of the Dockerfile, against an embedded PostgreSQL.
+ * Run with {@code mvn -Paot,startup verify} (without {@code aot} the modes that need AOT classes are skipped).
+ * <p>
+ * The jar is extracted and a class-data-sharing archive trained the way the image build does it, without a database.
+ * Each mode is then started {@code startup.runs} times in a fresh JVM. Reported per mode, as the median over runs:
+ * the "Started ... in" time Spring logs, and the time from launching the JVM to the first answered
+ * {@code GET /expenses/balances}.
+ */
+public final class StartupMeasurement {
+
+	private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+	private static final String AOT_INITIALIZER = "BOOT-INF/classes/com/splitapp/backend/SplitappApplication__ApplicationContextInitializer.class";
+
+	private final Path jar;
+	private final Path workDir;
+	private final int runs;
+	private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	private StartupMeasurement(Path jar, Path workDir, int runs) {
+		this.jar = jar;
+		this.workDir = workDir;
+		this.runs = runs;
+	}
+
+	public static void main(String[] args) throws Exception {
+		StartupMeasurement measurement = new StartupMeasurement(
+				Path.of(System.getProperty("startup.jar")),
+				Path.of(System.getProperty("startup.work-dir", "target/startup")),
+				Integer.parseInt(System.getProperty("startup.runs", "5")));
+		measurement.run();
+	}
+
+	private void run() throws Exception {
+		boolean aot;
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			aot = jarFile.getEntry(AOT_INITIALIZER) != null;
+		}
+		Path extracted = workDir.resolve("extracted");
+		Path app = extracted.resolve(jar.getFileName());
+		Path archive = extracted.resolve("application.jsa");
+		deleteRecursively(extracted);
+		exec(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination", extracted.toString()));
+		List<String> training = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh"));
+		if (aot) {
+			training.add("-Dspring.aot.enabled=true");
+		}
+		training.addAll(List.of("-jar", app.toString(), "--splitapp.schema.update=false", "--spring.jpa.hibernate.ddl-auto=none",
+				"--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false", "--server.port=0"));
+		exec(training);
+
+		Map<String, List<String>> modes = new LinkedHashMap<>();
+		modes.put("jar", List.of("-jar", jar.toString()));
+		modes.put("extracted", List.of("-jar", app.toString()));
+		modes.put("extracted+cds", List.of("-XX:SharedArchiveFile=" + archive, "-jar", app.toString()));
+		if (aot) {
+			modes.put("extracted+cds+aot", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true", "-jar", app.toString()));
+			modes.put("extracted+cds+aot+lazy", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true", "-jar", app.toString(),
+					"--spring.main.lazy-initialization=true"));
+		} else {
+			System.out.println("The jar has no AOT classes (build with -Paot); skipping the AOT modes");
+		}
+
+		Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+		try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+			List<String> database = List.of("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+					"--spring.datasource.username=postgres", "--spring.datasource.password=postgres");
+			start(modes.get("jar"), database, Path.of("warmup")); // Creates the schema, so no measured run does
+			for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+				double[] started = new double[runs];
+				double[] firstRequest = new double[runs];
+				for (int i = 0; i < runs; i++) {
+					double[] times = start(mode.getValue(), database, Path.of(mode.getKey() + "-" + i));
+					started[i] = times[0];
+					firstRequest[i] = times[1];
+				}
+				Map<String, Object> result = new LinkedHashMap<>();
+				result.put("startedSeconds", median(started));
+				result.put("firstRequestSeconds", median(firstRequest));
+				result.put("runs", runs);
+				results.put(mode.getKey(), result);
+				System.out.printf(Locale.ROOT, "%-24s started in %6.2fs, first request answered after %6.2fs%n",
+						mode.getKey(), median(started), median(firstRequest));
+			}
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("startedAt", Instant.now());
+		report.put("javaVersion", System.getProperty("java.version"));
+		report.put("processors", Runtime.getRuntime().availableProcessors());
+		report.put("modes", results);
+		Path file = workDir.resolve("startup-" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(Instant.now()) + ".json");
+		new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+		System.out.println("Report: " + file.toAbsolutePath());
+	}
+
+	/**
+	 * Launch the application, wait for its first answered request, stop it. Returns {Spring's started time,
+	 * seconds from launch to the first answer}.
+	 */
+	private double[] start(List<String> mode, List<String> database, Path logName) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>(List.of(java));
+		command.addAll(mode);
+		command.addAll(database);
+		command.add("--server.port=" + port);
+		Path log = workDir.resolve("logs").resolve(logName + ".log");
+		Files.createDirectories(log.getParent());
+
+		long launched = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/expenses/balances")).build();
+			long deadline = launched + TimeUnit.MINUTES.toNanos(2);
+			while (true) {
+				if (!process.isAlive() || System.nanoTime() > deadline) {
+					throw new IllegalStateException("Application did not answer, see " + log.toAbsolutePath());
+				}
+				try {
+					if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						break;
+					}
+				} catch (ConnectException e) {
+					// Not listening yet
+				}
+				Thread.sleep(5);
+			}
+			double firstRequest = (System.nanoTime() - launched) / 1e9;
+			Matcher matcher = STARTED.matcher(Files.readString(log));
+			return new double[] {matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN, firstRequest};
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private void exec(List<String> command) throws IOException, InterruptedException {
+		Path log = workDir.resolve("logs").resolve(command.contains("extract") ? "extract.log" : "training.log");
+		Files.createDirectories(log.getParent());
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+		if (process.waitFor() != 0) {
+			throw new IllegalStateException(String.join(" ", command) + " failed, see " + log.toAbsolutePath());
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static double median(double[] values) {
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted.length % 2 == 1 ? sorted[sorted.length / 2] : (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+	}
+
+	private static void deleteRecursively(Path dir) throws IOException {
+		if (Files.exists(dir)) {
+			try (var paths = Files.walk(dir)) {
+				for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+					Files.delete(path);
+				}
+			}
+		}
+	}
+}
@@ -1,17 +1,27 @@
 package com.splitapp.backend;
 
+import com.splitapp.backend.cli.CsvCommandLineRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point for the Spring Boot SplitApp application.
  */
 @SpringBootApplication
+@EnableScheduling // Periodic ledger snapshots
 public class SplitappApplication {
 
 	public static void main(String[] args) {
+		SpringApplication app = new SpringApplication(SplitappApplication.class);
+		if (CsvCommandLineRunner.isCsvCommand(args)) {
+			// One-shot CSV import/export: no web server, exit once the transfer is done
+			app.setWebApplicationType(WebApplicationType.NONE);
+			System.exit(SpringApplication.exit(app.run(args)));
+		}
 		// Start the Spring Boot application
-		SpringApplication.run(SplitappApplication.class, args);
+		app.run(args);
 	}// end of main.
 
 }// end of SplitappApplication class.
@@ -0,0 +1,52 @@
+package com.splitapp.backend.cbor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Lets clients ask for CBOR ({@code Accept: application/cbor}) instead of JSON on any endpoint. The converter
+ * goes after the JSON one, so requests that accept both (or anything) keep getting JSON.
+ */
+@Configuration
+public class CborConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder mapperBuilder;
+
+    public CborConfig(Jackson2ObjectMapperBuilder mapperBuilder) {
+        this.mapperBuilder = mapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CborHttpMessageConverter(mapperBuilder.factory(new CborFactory()).build()));
+    }
+
+    /**
+     * Same serialization settings as the JSON converter (dates, modules, inclusion), CBOR on the wire.
+     */
+    static class CborHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+        CborHttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+            return false; // Responses only
+        }
+
+        @Override
+        public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.splitapp.backend.cbor;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.IOContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Jackson factory whose byte generators write CBOR, so an {@code ObjectMapper} built on it serializes
+ * anything it can write as JSON. Write-only: parsers are still JSON ones, and request bodies stay JSON.
+ */
+public class CborFactory extends JsonFactory {
+
+    public static final String FORMAT_NAME = "CBOR";
+
+    public CborFactory() {
+    }
+
+    protected CborFactory(CborFactory source, ObjectCodec codec) {
+        super(source, codec);
+    }
+
+    @Override
+    public CborFactory copy() {
+        return new CborFactory(this, null);
+    }
+
+    @Override
+    public String getFormatName() {
+        return FORMAT_NAME;
+    }
+
+    @Override
+    public boolean canHandleBinaryNatively() {
+        return true;
+    }
+
+    @Override
+    protected JsonGenerator _createUTF8Generator(OutputStream out, IOContext context) throws IOException {
+        return new CborGenerator(_generatorFeatures, _objectCodec, context, out);
+    }
+
+    @Override
+    protected JsonGenerator _createGenerator(Writer out, IOContext context) throws IOException {
+        throw new UnsupportedOperationException("CBOR is binary and can not be written to a Writer");
+    }
+}
@@ -0,0 +1,368 @@
+package com.splitapp.backend.cbor;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.base.GeneratorBase;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.json.JsonWriteContext;
+import com.fasterxml.jackson.core.json.PackageVersion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Jackson generator writing CBOR (RFC 8949) instead of JSON text. Objects and arrays are written with
+ * indefinite length, so output streams like JSON does; decimals use tag 4 (decimal fraction), so amounts
+ * keep their exact value and scale.
+ */
+class CborGenerator extends GeneratorBase {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1 << 5;
+    private static final int MAJOR_BYTES = 2 << 5;
+    private static final int MAJOR_TEXT = 3 << 5;
+    private static final int MAJOR_ARRAY = 4 << 5;
+    private static final int MAJOR_TAG = 6 << 5;
+    private static final int ARRAY_START = 0x9f;
+    private static final int MAP_START = 0xbf;
+    private static final int BREAK = 0xff;
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int FLOAT32 = 0xfa;
+    private static final int FLOAT64 = 0xfb;
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+    private static final int TAG_DECIMAL_FRACTION = 4;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+
+    CborGenerator(int features, ObjectCodec codec, IOContext context, OutputStream out) {
+        super(features, codec, context);
+        this.out = out;
+    }
+
+    @Override
+    public Version version() {
+        return PackageVersion.VERSION;
+    }
+
+    @Override
+    public boolean canWriteBinaryNatively() {
+        return true;
+    }
+
+    @Override
+    public GeneratorBase useDefaultPrettyPrinter() {
+        return this; // Binary output has no layout
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        _verifyValueWrite("start an array");
+        _writeContext = _writeContext.createChildArrayContext();
+        writeByte(ARRAY_START);
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        if (!_writeContext.inArray()) {
+            _reportError("Current context not an array but " + _writeContext.typeDesc());
+        }
+        writeByte(BREAK);
+        _writeContext = _writeContext.clearAndGetParent();
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        _verifyValueWrite("start an object");
+        _writeContext = _writeContext.createChildObjectContext();
+        writeByte(MAP_START);
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        if (!_writeContext.inObject()) {
+            _reportError("Current context not an object but " + _writeContext.typeDesc());
+        }
+        writeByte(BREAK);
+        _writeContext = _writeContext.clearAndGetParent();
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        if (_writeContext.writeFieldName(name) == JsonWriteContext.STATUS_EXPECT_VALUE) {
+            _reportError("Can not write a field name, expecting a value");
+        }
+        writeText(name);
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        if (_writeContext.writeFieldName(name.getValue()) == JsonWriteContext.STATUS_EXPECT_VALUE) {
+            _reportError("Can not write a field name, expecting a value");
+        }
+        byte[] utf8 = name.asUnquotedUTF8(); // Cached by the serializer, so property names are encoded once
+        writeHead(MAJOR_TEXT, utf8.length);
+        writeBytes(utf8, 0, utf8.length);
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        if (text == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a string");
+        writeText(text);
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int length) throws IOException {
+        writeString(new String(text, offset, length));
+    }
+
+    @Override
+    public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+        writeUTF8String(text, offset, length);
+    }
+
+    @Override
+    public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+        _verifyValueWrite("write a string");
+        writeHead(MAJOR_TEXT, length);
+        writeBytes(text, offset, length);
+    }
+
+    @Override
+    public void writeRaw(String text) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(String text, int offset, int length) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(char[] text, int offset, int length) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeRaw(char c) throws IOException {
+        _reportUnsupportedOperation();
+    }
+
+    @Override
+    public void writeBinary(Base64Variant variant, byte[] data, int offset, int length) throws IOException {
+        if (data == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a binary value");
+        writeHead(MAJOR_BYTES, length);
+        writeBytes(data, offset, length);
+    }
+
+    @Override
+    public void writeNumber(int value) throws IOException {
+        writeNumber((long) value);
+    }
+
+    @Override
+    public void writeNumber(long value) throws IOException {
+        _verifyValueWrite("write a number");
+        writeInteger(value);
+    }
+
+    @Override
+    public void writeNumber(BigInteger value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a number");
+        writeBigInteger(value);
+    }
+
+    @Override
+    public void writeNumber(double value) throws IOException {
+        _verifyValueWrite("write a number");
+        long bits = Double.doubleToLongBits(value);
+        writeByte(FLOAT64);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (bits >>> shift));
+        }
+    }
+
+    @Override
+    public void writeNumber(float value) throws IOException {
+        _verifyValueWrite("write a number");
+        int bits = Float.floatToIntBits(value);
+        writeByte(FLOAT32);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            writeByte(bits >>> shift);
+        }
+    }
+
+    @Override
+    public void writeNumber(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        _verifyValueWrite("write a number");
+        // Tag 4: [exponent, mantissa], value = mantissa * 10^exponent
+        writeHead(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+        writeHead(MAJOR_ARRAY, 2);
+        writeInteger(-value.scale());
+        writeBigInteger(value.unscaledValue());
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws IOException {
+        writeString(encodedValue); // Number already encoded as text, e.g. by a custom serializer
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws IOException {
+        _verifyValueWrite("write a boolean value");
+        writeByte(state ? TRUE : FALSE);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        _verifyValueWrite("write a null");
+        writeByte(NULL);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (isEnabled(Feature.FLUSH_PASSED_TO_STREAM)) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        flushBuffer();
+        if (_ioContext.isResourceManaged() || isEnabled(Feature.AUTO_CLOSE_TARGET)) {
+            out.close();
+        } else if (isEnabled(Feature.FLUSH_PASSED_TO_STREAM)) {
+            out.flush();
+        }
+        _releaseBuffers();
+    }
+
+    @Override
+    protected void _releaseBuffers() {
+        // The buffer belongs to this generator, nothing to hand back
+    }
+
+    @Override
+    protected void _verifyValueWrite(String typeMsg) throws IOException {
+        if (_writeContext.writeValue() == JsonWriteContext.STATUS_EXPECT_NAME) {
+            _reportError("Can not " + typeMsg + ", expecting field name");
+        }
+    }
+
+    private void writeInteger(long value) throws IOException {
+        if (value >= 0) {
+            writeHead(MAJOR_UNSIGNED, value);
+        } else {
+            writeHead(MAJOR_NEGATIVE, -1 - value);
+        }
+    }
+
+    private void writeBigInteger(BigInteger value) throws IOException {
+        if (value.bitLength() < 64) {
+            writeInteger(value.longValueExact());
+            return;
+        }
+        boolean negative = value.signum() < 0;
+        byte[] magnitude = (negative ? value.negate().subtract(BigInteger.ONE) : value).toByteArray();
+        int skip = magnitude[0] == 0 ? 1 : 0; // Sign byte
+        writeHead(MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+        writeHead(MAJOR_BYTES, magnitude.length - skip);
+        writeBytes(magnitude, skip, magnitude.length - skip);
+    }
+
+    private void writeText(String text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                writeHead(MAJOR_TEXT, utf8.length);
+                writeBytes(utf8, 0, utf8.length);
+                return;
+            }
+        }
+        // ASCII: one byte per char, copied straight into the buffer
+        writeHead(MAJOR_TEXT, length);
+        for (int i = 0; i < length; i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+
+    /**
+     * Initial byte plus argument, in the shortest form. The argument is never negative.
+     */
+    private void writeHead(int major, long value) throws IOException {
+        if (value < 24) {
+            writeByte(major | (int) value);
+        } else if (value < 0x100) {
+            writeByte(major | 24);
+            writeByte((int) value);
+        } else if (value < 0x10000) {
+            writeByte(major | 25);
+            writeByte((int) (value >>> 8));
+            writeByte((int) value);
+        } else if (value < 0x100000000L) {
+            writeByte(major | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        } else {
+            writeByte(major | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length - position) {
+            flushBuffer();
+            if (length > buffer.length) {
+                out.write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.splitapp.backend.cli;
+
+import com.splitapp.backend.service.CsvTransferService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-shot CSV transfer from the command line, without starting the web server:
+ * <pre>
+ * java -jar backend.jar --csv-import=expenses.csv
+ * java -jar backend.jar --csv-export=expenses.csv [--csv-group=42]
+ * </pre>
+ */
+@Component
+public class CsvCommandLineRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvCommandLineRunner.class);
+
+    static final String IMPORT = "csv-import";
+    static final String EXPORT = "csv-export";
+    static final String GROUP = "csv-group";
+
+    private final CsvTransferService csvService;
+
+    public CsvCommandLineRunner(CsvTransferService csvService) {
+        this.csvService = csvService;
+    }
+
+    /**
+     * Whether the command line asks for a CSV transfer rather than the server.
+     */
+    public static boolean isCsvCommand(String... args) {
+        return Arrays.stream(args).anyMatch(a -> a.startsWith("--" + IMPORT + "=") || a.startsWith("--" + EXPORT + "="));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> imports = args.getOptionValues(IMPORT);
+        if (imports != null) {
+            for (String file : imports) {
+                try (InputStream in = Files.newInputStream(Path.of(file))) {
+                    Map<String, Object> result = csvService.importCsv(in);
+                    log.info("Imported {}: {}", file, result);
+                }
+            }
+        }
+
+        List<String> exports = args.getOptionValues(EXPORT);
+        if (exports != null) {
+            List<String> groups = args.getOptionValues(GROUP);
+            Long groupId = groups == null || groups.isEmpty() ? null : Long.valueOf(groups.get(0));
+            for (String file : exports) {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(file)))) {
+                    long rows = csvService.exportCsv(groupId, out);
+                    log.info("Exported {} rows to {}", rows, file);
+                }
+            }
+        }
+    }
+}
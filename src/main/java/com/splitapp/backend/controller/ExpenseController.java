@@ -1,14 +1,42 @@
 package com.splitapp.backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitapp.backend.dto.BatchItemResult;
 import com.splitapp.backend.dto.ExpenseRequest;
+import com.splitapp.backend.dto.IdempotentResponse;
 import com.splitapp.backend.model.Expense;
 import com.splitapp.backend.model.Person;
+import com.splitapp.backend.service.BalanceFeedService;
+import com.splitapp.backend.service.CsvTransferService;
+import com.splitapp.backend.service.ExpenseBatchService;
 import com.splitapp.backend.service.ExpenseService;
+import com.splitapp.backend.service.IdempotencyService;
+import com.splitapp.backend.service.settlement.SettlementReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST controller for managing expense-related endpoints.
@@ -17,17 +45,52 @@ import java.util.Map;
 @RequestMapping("/expenses")
 public class ExpenseController {
 
+    private static final Logger log = LoggerFactory.getLogger(ExpenseController.class);
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final ExpenseService expenseService;
+    private final ExpenseBatchService batchService;
+    private final CsvTransferService csvService;
+    private final IdempotencyService idempotencyService;
+    private final BalanceFeedService balanceFeed;
+    private final ObjectMapper objectMapper;
 
-    public ExpenseController(ExpenseService expenseService) {
+    public ExpenseController(ExpenseService expenseService, ExpenseBatchService batchService, CsvTransferService csvService,
+                             IdempotencyService idempotencyService, BalanceFeedService balanceFeed, ObjectMapper objectMapper) {
         this.expenseService = expenseService;
+        this.batchService = batchService;
+        this.csvService = csvService;
+        this.idempotencyService = idempotencyService;
+        this.balanceFeed = balanceFeed;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Add a new expense with split details.
+     * With an Idempotency-Key header, retries of a successful request get its stored response
+     * (marked Idempotent-Replayed) instead of adding the expense again.
      */
     @PostMapping
-    public ResponseEntity<?> addExpense(@RequestBody ExpenseRequest request) {
+    public ResponseEntity<?> addExpense(@RequestBody ExpenseRequest request,
+                                        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return doAddExpense(request);
+        }
+        try {
+            IdempotentResponse response = idempotencyService.execute(idempotencyKey, fingerprint("POST /expenses", request),
+                    () -> toIdempotent(doAddExpense(request)));
+            return ResponseEntity.status(response.status())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()))
+                    .body(response.body());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> doAddExpense(ExpenseRequest request) {
         try {
             Expense expense = expenseService.addExpense(
                     request.getDescription(),
@@ -41,17 +104,120 @@ public class ExpenseController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to add expense", e);
             return ResponseEntity.internalServerError().body(Map.of("success", false, "message", "Internal server error"));
         }
     }
 
     /**
-     * Fetch a list of all recorded expenses.
+     * Add many expenses from a JSON array, committed in chunks, with one result per item.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> addExpenses(@RequestBody List<ExpenseRequest> requests) {
+        return batchResponse(batchService.addExpenses(requests));
+    }
+
+    /**
+     * Add many expenses from an NDJSON stream (one ExpenseRequest object per line).
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> addExpensesNdjson(InputStream body) {
+        List<ExpenseRequest> requests;
+        try (MappingIterator<ExpenseRequest> it = objectMapper.readerFor(ExpenseRequest.class).readValues(body)) {
+            requests = it.readAll();
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Malformed NDJSON: " + e.getMessage()));
+        }
+        return batchResponse(batchService.addExpenses(requests));
+    }
+
+    private ResponseEntity<?> batchResponse(List<BatchItemResult> results) {
+        long failed = results.stream().filter(r -> !r.isSuccess()).count();
+        Map<String, Object> data = Map.of("received", results.size(), "succeeded", results.size() - failed, "failed", failed, "results", results);
+        return ResponseEntity.ok(Map.of("success", failed == 0, "data", data,
+                "message", failed == 0 ? "Expenses added successfully" : failed + " of " + results.size() + " expenses failed"));
+    }
+
+    /**
+     * Bulk import expenses from CSV (one row per split), streamed straight into the database with COPY.
+     * All or nothing: the first invalid expense fails the whole import.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importCsv(InputStream body) {
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "data", csvService.importCsv(body), "message", "Expenses imported successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Export every expense (or those of one group) as CSV in the import format, streamed from the database with COPY.
+     */
+    @GetMapping(value = "/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestParam(required = false) Long groupId) {
+        StreamingResponseBody body = out -> csvService.exportCsv(groupId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header("Content-Disposition", "attachment; filename=\"expenses.csv\"")
+                .body(body);
+    }
+
+    /**
+     * Fetch one page of expenses ordered by creation time, optionally filtered by payer and date range.
+     * Pass the returned nextCursor back as {@code cursor} to get the following page.
      */
     @GetMapping
-    public ResponseEntity<List<Expense>> getAllExpenses() {
-        return ResponseEntity.ok(expenseService.getAllExpenses());
+    public ResponseEntity<?> getExpenses(@RequestParam(required = false) String payer,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(expenseService.getExpensesPage(payer, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * The same page for clients that accept CBOR, in the flat form: payers by id plus one {@code people} dictionary.
+     * Requests accepting anything still get the JSON page above.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<?> getCompactExpenses(@RequestParam(required = false) String payer,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(expenseService.getCompactExpensesPage(payer, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream every matching expense as one JSON array, written incrementally from a database cursor.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamExpenses(@RequestParam(required = false) String payer,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                expenseService.streamExpenses(payer, from, to, expense -> {
+                    try {
+                        json.writeObject(expense);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -64,28 +230,96 @@ public class ExpenseController {
 
     /**
      * Calculate and return current balances per person (how much each owes/is owed).
+     * Carries a strong ETag of the data version; a matching If-None-Match gets 304 Not Modified.
      */
     @GetMapping("/balances")
-    public ResponseEntity<?> getBalances() {
-        return ResponseEntity.ok(expenseService.getBalances());
+    public ResponseEntity<?> getBalances(WebRequest request) {
+        String etag = etag(expenseService.getDataVersion(), "balances");
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified, nothing recomputed
+        }
+        return ResponseEntity.ok().eTag(etag).body(expenseService.getBalances());
+    }
+
+    /**
+     * Server-sent events with per-person balance deltas after every committed change.
+     * Resume with the Last-Event-ID header (or lastEventId parameter); lastEventId=0 replays the whole ledger,
+     * i.e. starts from full balances.
+     */
+    @GetMapping(value = "/balances/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBalances(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                                     @RequestParam(required = false) Long lastEventId) {
+        try {
+            return ResponseEntity.ok(balanceFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        }
+    }
+
+    /**
+     * Recompute balances from the raw expense tables and report any drift in the ledger.
+     */
+    @GetMapping("/balances/verify")
+    public ResponseEntity<?> verifyBalances() {
+        return ResponseEntity.ok(expenseService.verifyBalances());
+    }
+
+    /**
+     * Rebuild the balance ledger from the raw expense tables, returning the drift that was corrected.
+     */
+    @PostMapping("/balances/rebuild")
+    public ResponseEntity<?> rebuildBalances() {
+        return ResponseEntity.ok(expenseService.rebuildBalances());
+    }
+
+    /**
+     * Fold the ledger entries appended since the last snapshot into a new snapshot now,
+     * instead of waiting for the periodic one.
+     */
+    @PostMapping("/balances/snapshot")
+    public ResponseEntity<?> snapshotBalances() {
+        return ResponseEntity.ok(expenseService.snapshotBalances());
     }
 
     /**
      * Calculate simplified settlement summary (who pays whom and how much).
+     * {@code strategy} selects the algorithm: "greedy" (default, fast) or "optimal" (fewest transfers, time-bounded).
+     * The strategy that ran, its duration and whether it finished within budget are reported in response headers.
+     * Carries a strong ETag of the data version; a matching If-None-Match gets 304 Not Modified.
      */
     @GetMapping("/settlements")
-    public ResponseEntity<?> getSettlements() {
-        return ResponseEntity.ok(expenseService.getSettlements());
+    public ResponseEntity<?> getSettlements(@RequestParam(required = false) String strategy, WebRequest request) {
+        String etag = etag(expenseService.getDataVersion(), "settlements-" + (strategy == null ? "default" : strategy));
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified, nothing recomputed
+        }
+
+        SettlementReport report;
+        try {
+            report = expenseService.getSettlements(strategy);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header("X-Settlement-Strategy", report.getStrategy())
+                .header("X-Settlement-Elapsed-Micros", String.valueOf(report.getElapsedMicros()))
+                .header("X-Settlement-Complete", String.valueOf(report.isComplete()))
+                .body(report.getTransfers());
     }
 
     /**
      * Update an existing expense by its ID.
+     * 409 Conflict if the request's version is no longer current, or a concurrent edit won.
      */
     @PutMapping("/{id}")
     public ResponseEntity<?> updateExpense(@PathVariable Long id, @RequestBody ExpenseRequest request) {
         try {
             Expense updated = expenseService.updateExpense(
                     id,
+                    request.getVersion(),
                     request.getDescription(),
                     request.getAmount(),
                     request.getPaidBy(),
@@ -96,12 +330,26 @@ public class ExpenseController {
             return ResponseEntity.ok(Map.of("success", true, "data", updated, "message", "Expense updated successfully"));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to update expense {}", id, e);
             return ResponseEntity.internalServerError().body(Map.of("success", false, "message", "Internal server error"));
         }
     }
 
+    /**
+     * Audit history of an expense: every ledger entry it produced, including reversals from edits and deletion.
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<?> getExpenseHistory(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(expenseService.getExpenseHistory(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
     /**
      * Delete an expense and its associated splits by ID.
      */
@@ -110,10 +358,43 @@ public class ExpenseController {
         try {
             expenseService.deleteExpense(id);
             return ResponseEntity.ok(Map.of("success", true, "message", "Expense deleted successfully"));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict();
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to delete expense {}", id, e);
             return ResponseEntity.status(500).body(Map.of("success", false, "message", "Error deleting expense"));
         }
     }
 
+    private static ResponseEntity<?> conflict() {
+        return ResponseEntity.status(409).body(Map.of("success", false,
+                "message", "Expense was changed by another request; reload it and try again"));
+    }
+
+    private static String etag(long version, String resource) {
+        return "\"" + resource + "-" + version + "\"";
+    }
+
+    /**
+     * SHA-256 of the endpoint and the request as JSON, so one key cannot be replayed for a different request.
+     */
+    private String fingerprint(String endpoint, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private IdempotentResponse toIdempotent(ResponseEntity<?> response) {
+        try {
+            return new IdempotentResponse(response.getStatusCode().value(), objectMapper.writeValueAsString(response.getBody()), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
@@ -0,0 +1,60 @@
+package com.splitapp.backend.controller;
+
+import com.splitapp.backend.dto.ExpenseRequest;
+import com.splitapp.backend.service.ExpenseIngestService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous expense creation through the write-behind queue (only when {@code splitapp.ingest.enabled=true}).
+ */
+@RestController
+@RequestMapping("/expenses/async")
+@ConditionalOnProperty(name = "splitapp.ingest.enabled", havingValue = "true")
+public class ExpenseIngestController {
+
+    private final ExpenseIngestService ingestService;
+
+    public ExpenseIngestController(ExpenseIngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    /**
+     * Validate and queue an expense; 202 Accepted with an id to poll, 429 when the queue is full.
+     */
+    @PostMapping
+    public ResponseEntity<?> addExpense(@RequestBody ExpenseRequest request) {
+        try {
+            String id = ingestService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/expenses/async/" + id))
+                    .body(Map.of("success", true, "id", id, "message", "Expense queued"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1")
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * State of a queued expense: QUEUED, CREATED (with expenseId) or FAILED (with message).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getStatus(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(ingestService.getStatus(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+}
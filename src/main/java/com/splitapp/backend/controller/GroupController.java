@@ -0,0 +1,144 @@
+package com.splitapp.backend.controller;
+
+import com.splitapp.backend.dto.ExpenseRequest;
+import com.splitapp.backend.dto.GroupRequest;
+import com.splitapp.backend.model.Expense;
+import com.splitapp.backend.model.ExpenseGroup;
+import com.splitapp.backend.service.GroupService;
+import com.splitapp.backend.service.settlement.SettlementReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * REST controller for expense groups. Balances and settlements here only cover the group's own expenses.
+ */
+@RestController
+@RequestMapping("/groups")
+public class GroupController {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupController.class);
+
+    private final GroupService groupService;
+
+    public GroupController(GroupService groupService) {
+        this.groupService = groupService;
+    }
+
+    /**
+     * Create a new group.
+     */
+    @PostMapping
+    public ResponseEntity<?> createGroup(@RequestBody GroupRequest request) {
+        try {
+            ExpenseGroup group = groupService.createGroup(request.getName());
+            return ResponseEntity.ok(Map.of("success", true, "data", group, "message", "Group created successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get a group by its ID.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getGroup(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(groupService.getGroup(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Add a new expense with split details to a group.
+     */
+    @PostMapping("/{id}/expenses")
+    public ResponseEntity<?> addExpense(@PathVariable Long id, @RequestBody ExpenseRequest request) {
+        try {
+            Expense expense = groupService.addExpense(
+                    id,
+                    request.getDescription(),
+                    request.getAmount(),
+                    request.getPaidBy(),
+                    request.getParticipants(),
+                    request.getSplitType(),
+                    request.getShareValues()
+            );
+            return ResponseEntity.ok(Map.of("success", true, "data", expense, "message", "Expense added successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to add expense to group {}", id, e);
+            return ResponseEntity.internalServerError().body(Map.of("success", false, "message", "Internal server error"));
+        }
+    }
+
+    /**
+     * Fetch one page of a group's expenses ordered by creation time, optionally filtered by payer and date range.
+     */
+    @GetMapping("/{id}/expenses")
+    public ResponseEntity<?> getExpenses(@PathVariable Long id,
+                                         @RequestParam(required = false) String payer,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(groupService.getExpensesPage(id, payer, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Current balance of every person in the group.
+     * Carries a strong ETag of the group's data version; a matching If-None-Match gets 304 Not Modified.
+     */
+    @GetMapping("/{id}/balances")
+    public ResponseEntity<?> getBalances(@PathVariable Long id, WebRequest request) {
+        try {
+            String etag = etag(id, groupService.getDataVersion(id), "balances");
+            if (request.checkNotModified(etag)) {
+                return null; // 304 Not Modified, nothing recomputed
+            }
+            return ResponseEntity.ok().eTag(etag).body(groupService.getBalances(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Settlement summary of the group (who pays whom and how much), see {@code GET /expenses/settlements}.
+     * Carries a strong ETag of the group's data version; a matching If-None-Match gets 304 Not Modified.
+     */
+    @GetMapping("/{id}/settlements")
+    public ResponseEntity<?> getSettlements(@PathVariable Long id, @RequestParam(required = false) String strategy,
+                                            WebRequest request) {
+        try {
+            String etag = etag(id, groupService.getDataVersion(id), "settlements-" + (strategy == null ? "default" : strategy));
+            if (request.checkNotModified(etag)) {
+                return null; // 304 Not Modified, nothing recomputed
+            }
+            SettlementReport report = groupService.getSettlements(id, strategy);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .header("X-Settlement-Strategy", report.getStrategy())
+                    .header("X-Settlement-Elapsed-Micros", String.valueOf(report.getElapsedMicros()))
+                    .header("X-Settlement-Complete", String.valueOf(report.isComplete()))
+                    .body(report.getTransfers());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    private static String etag(Long groupId, long version, String resource) {
+        return "\"group-" + groupId + "-" + resource + "-" + version + "\"";
+    }
+}
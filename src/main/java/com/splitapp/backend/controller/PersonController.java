@@ -0,0 +1,36 @@
+package com.splitapp.backend.controller;
+
+import com.splitapp.backend.service.PersonStatementService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for per-person views.
+ */
+@RestController
+@RequestMapping("/people")
+public class PersonController {
+
+    private final PersonStatementService statementService;
+
+    public PersonController(PersonStatementService statementService) {
+        this.statementService = statementService;
+    }
+
+    /**
+     * One page of a person's statement: what they paid and owe per expense, oldest first, with a running balance.
+     * Pass nextCursor back as cursor for the following page; the balance carries over.
+     */
+    @GetMapping("/{name}/statement")
+    public ResponseEntity<?> getStatement(@PathVariable String name,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(statementService.getStatement(name, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+}
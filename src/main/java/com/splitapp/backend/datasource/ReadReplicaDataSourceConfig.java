@@ -0,0 +1,64 @@
+package com.splitapp.backend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read replica mode ({@code splitapp.datasource.replica.url} set): {@code @Transactional(readOnly = true)} work
+ * runs on a separate replica pool, everything else on the primary ({@code spring.datasource.*}).
+ * <p>
+ * The application's datasource is a {@link LazyConnectionDataSourceProxy}: it only picks a pool on the first
+ * statement, after the transaction has marked the connection read-only.
+ */
+@Configuration
+@ConditionalOnProperty("splitapp.datasource.replica.url")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("splitapp.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                       @Value("${splitapp.datasource.replica.url}") String url,
+                                       @Value("${splitapp.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                       @Value("${splitapp.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, @Qualifier("replicaDataSource") DataSource replica) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica));
+        return proxy;
+    }
+
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${splitapp.datasource.replica.pin-window:5s}") Duration pinWindow) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(pinWindow));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10); // Before anything that might touch the database
+        return registration;
+    }
+}
@@ -0,0 +1,49 @@
+package com.splitapp.backend.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread switch that sends read-only transactions to the primary instead of the replica.
+ * Set for requests that must see their own (or their session's recent) writes; a no-op without a replica.
+ */
+public final class ReadWriteRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReadWriteRouting() {}
+
+    /**
+     * Whether read-only transactions on this thread currently go to the primary.
+     */
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    /**
+     * Run {@code work} with read-only transactions pinned to the primary, restoring the previous setting afterwards.
+     * Transactions already holding a connection keep it.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static Boolean pin(boolean pinned) {
+        Boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(pinned);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY_PINNED.remove();
+        } else {
+            PRIMARY_PINNED.set(previous);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.splitapp.backend.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes for clients of a lagging replica. A mutating request reads from the primary itself and
+ * sets a short-lived cookie; requests presenting that cookie also read from the primary until it expires,
+ * by which time the replica is expected to have caught up.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "splitapp-primary";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private static final String GRAPHQL_PATH = "/graphql"; // POSTed, but the schema only has queries
+
+    private final Duration pinWindow;
+
+    public ReadYourWritesFilter(Duration pinWindow) {
+        this.pinWindow = pinWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean mutation = !SAFE_METHODS.contains(request.getMethod()) && !GRAPHQL_PATH.equals(request.getRequestURI());
+        if (mutation && !pinWindow.isZero()) {
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge((int) Math.max(1, (pinWindow.toMillis() + 999) / 1000)); // Whole seconds, rounded up
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+
+        Boolean previous = ReadWriteRouting.pin(mutation || hasPinCookie(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRouting.restore(previous);
+        }
+    }
+
+    private static boolean hasPinCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
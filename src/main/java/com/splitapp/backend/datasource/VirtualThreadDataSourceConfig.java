@@ -0,0 +1,48 @@
+package com.splitapp.backend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode ({@code spring.threads.virtual.enabled=true} on JDK 21+): every request gets its own
+ * virtual thread, so every connection pool is wrapped in a {@link ConnectionLimitingDataSource} sized to that pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadDataSourceConfig {
+
+    /**
+     * Runs before the other (unordered) post-processors, so it sees the pools themselves, not a wrapper around them.
+     */
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${splitapp.datasource.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new ConnectionLimitingPostProcessor(acquireTimeout);
+    }
+
+    private record ConnectionLimitingPostProcessor(Duration acquireTimeout) implements BeanPostProcessor, PriorityOrdered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // Pools only: a routing proxy in front of them holds no connections of its own
+            if (bean instanceof HikariDataSource pool) {
+                return new ConnectionLimitingDataSource(pool, pool.getMaximumPoolSize(), acquireTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
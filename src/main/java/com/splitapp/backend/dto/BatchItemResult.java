@@ -0,0 +1,44 @@
+package com.splitapp.backend.dto;
+
+/**
+ * Outcome of a single item in a batch request, reported back to the client.
+ */
+public class BatchItemResult {
+
+    private final int index;       // Position of the item in the submitted batch
+    private final boolean success; // Whether the item was stored
+    private final Long id;         // ID of the created expense, if stored
+    private final String message;  // Reason for a failure, if any
+
+    private BatchItemResult(int index, boolean success, Long id, String message) {
+        this.index = index;
+        this.success = success;
+        this.id = id;
+        this.message = message;
+    }
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, true, id, null);
+    }
+
+    public static BatchItemResult failed(int index, String message) {
+        return new BatchItemResult(index, false, null, message);
+    }
+
+    // Getters
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,37 @@
+package com.splitapp.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.splitapp.backend.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of expenses in the flat form served as CBOR: each item names its payer by id, and {@code people}
+ * maps those ids to names once per page, instead of a nested person object on every expense.
+ */
+public record CompactExpensePage(List<Item> items, Map<Long, String> people, String nextCursor) {
+
+    public static CompactExpensePage of(List<Expense> expenses, String nextCursor) {
+        List<Item> items = new ArrayList<>(expenses.size());
+        Map<Long, String> people = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            items.add(new Item(expense.getId(), expense.getDescription(), expense.getAmount(), expense.getPaidBy().getId(),
+                    expense.getCreatedAt(), expense.getGroupId(), expense.getRevision(), expense.getVersion()));
+            people.putIfAbsent(expense.getPaidBy().getId(), expense.getPaidBy().getName());
+        }
+        return new CompactExpensePage(items, people, nextCursor);
+    }
+
+    /**
+     * One expense; {@code groupId} is left out for expenses outside any group.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(long id, String description, BigDecimal amount, long paidBy, LocalDateTime createdAt,
+                       Long groupId, int revision, long version) {
+    }
+}
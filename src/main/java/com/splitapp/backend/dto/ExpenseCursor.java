@@ -0,0 +1,57 @@
+package com.splitapp.backend.dto;
+
+import com.splitapp.backend.model.Expense;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over the (createdAt, id) ordering of expenses.
+ * Encoded as URL-safe Base64 so clients treat it as a token, not something to build.
+ */
+public class ExpenseCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public ExpenseCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Cursor that continues after the given expense.
+     */
+    public static ExpenseCursor after(Expense expense) {
+        return new ExpenseCursor(expense.getCreatedAt(), expense.getId());
+    }
+
+    /**
+     * Parse a cursor previously returned by {@link #encode()}.
+     */
+    public static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new ExpenseCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -14,6 +14,7 @@ public class ExpenseRequest {
     private List<String> participants; // List of participant names
     private String splitType;   // EQUAL, EXACT, or PERCENTAGE
     private List<BigDecimal> shareValues; // Shares per person (used for EXACT or PERCENTAGE)
+    private Long version;       // Updates only: version of the expense the client edited, if it wants conflicts reported
 
     // Getters and Setters
     public String getDescription() {
@@ -57,4 +58,11 @@ public class ExpenseRequest {
     public void setShareValues(List<BigDecimal> shareValues) {
         this.shareValues = shareValues;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
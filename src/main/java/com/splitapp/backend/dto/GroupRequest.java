@@ -0,0 +1,17 @@
+package com.splitapp.backend.dto;
+
+/**
+ * DTO to receive group creation requests from the client.
+ */
+public class GroupRequest {
+
+    private String name; // Display name of the group
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,16 @@
+package com.splitapp.backend.dto;
+
+/**
+ * Response of a request made with an Idempotency-Key: HTTP status and JSON body.
+ * {@code replayed} is true when it was served from an earlier request with the same key.
+ */
+public record IdempotentResponse(int status, String body, boolean replayed) {
+
+    public IdempotentResponse asReplay() {
+        return replayed ? this : new IdempotentResponse(status, body, true);
+    }
+
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
@@ -0,0 +1,24 @@
+package com.splitapp.backend.dto;
+
+/**
+ * State of an expense submitted to the asynchronous ingestion queue, as returned by {@code GET /expenses/async/{id}}.
+ * {@code expenseId} is set once CREATED, {@code message} once FAILED.
+ */
+public record IngestStatus(String id, String state, Long expenseId, String message) {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    public static IngestStatus queued(String id) {
+        return new IngestStatus(id, QUEUED, null, null);
+    }
+
+    public static IngestStatus created(String id, Long expenseId) {
+        return new IngestStatus(id, CREATED, expenseId, null);
+    }
+
+    public static IngestStatus failed(String id, String message) {
+        return new IngestStatus(id, FAILED, null, message);
+    }
+}
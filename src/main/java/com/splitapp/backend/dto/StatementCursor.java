@@ -0,0 +1,58 @@
+package com.splitapp.backend.dto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over a person's statement, ordered by the expenses' (createdAt, id).
+ * Also carries the running balance at that point, so the next page continues it without re-reading earlier rows.
+ */
+public class StatementCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long expenseId;
+    private final BigDecimal balance;
+
+    public StatementCursor(LocalDateTime createdAt, Long expenseId, BigDecimal balance) {
+        this.createdAt = createdAt;
+        this.expenseId = expenseId;
+        this.balance = balance;
+    }
+
+    /**
+     * Parse a cursor previously returned by {@link #encode()}.
+     */
+    public static StatementCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            return new StatementCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), new BigDecimal(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + expenseId + "|" + balance.toPlainString()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+}
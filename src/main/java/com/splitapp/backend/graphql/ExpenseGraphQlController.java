@@ -0,0 +1,131 @@
+package com.splitapp.backend.graphql;
+
+import com.splitapp.backend.model.Expense;
+import com.splitapp.backend.model.ExpenseGroup;
+import com.splitapp.backend.model.ExpenseSplit;
+import com.splitapp.backend.model.Person;
+import com.splitapp.backend.service.ExpenseService;
+import com.splitapp.backend.service.GroupService;
+import com.splitapp.backend.service.settlement.SettlementReport;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GraphQL resolvers for {@code /graphql} (schema in {@code graphql/schema.graphqls}).
+ * Payers are fetched with their expenses; splits of every expense in a response are loaded through one
+ * DataLoader batch, so the number of queries does not grow with the number of expenses.
+ */
+@Controller
+public class ExpenseGraphQlController {
+
+    private final ExpenseService expenseService;
+    private final GroupService groupService;
+
+    public ExpenseGraphQlController(ExpenseService expenseService, GroupService groupService) {
+        this.expenseService = expenseService;
+        this.groupService = groupService;
+    }
+
+    @QueryMapping
+    public Map<String, Object> expenses(@Argument String payer, @Argument String from, @Argument String to,
+                                        @Argument String after, @Argument int first) {
+        return expenseService.getExpensesPage(payer, parseTime(from), parseTime(to), after, first);
+    }
+
+    @QueryMapping
+    public Expense expense(@Argument Long id) {
+        return expenseService.getExpense(id);
+    }
+
+    @QueryMapping
+    public List<Person> people() {
+        return expenseService.getAllPeople();
+    }
+
+    @QueryMapping
+    public List<Map<String, Object>> balances() {
+        return expenseService.getBalances();
+    }
+
+    @QueryMapping
+    public SettlementReport settlements(@Argument String strategy) {
+        return expenseService.getSettlements(strategy);
+    }
+
+    @QueryMapping
+    public ExpenseGroup group(@Argument Long id) {
+        return groupService.getGroup(id);
+    }
+
+    /**
+     * Splits of every expense resolved in this request, loaded together.
+     */
+    @BatchMapping
+    public Map<Expense, List<ExpenseSplit>> splits(List<Expense> expenses) {
+        Map<Long, List<ExpenseSplit>> byId = expenseService.getSplits(expenses.stream().map(Expense::getId).distinct().toList());
+        Map<Expense, List<ExpenseSplit>> result = new LinkedHashMap<>();
+        for (Expense e : expenses) {
+            result.put(e, byId.getOrDefault(e.getId(), List.of()));
+        }
+        return result;
+    }
+
+    @SchemaMapping(typeName = "Expense")
+    public String createdAt(Expense expense) {
+        return expense.getCreatedAt().toString();
+    }
+
+    @SchemaMapping(typeName = "Group", field = "createdAt")
+    public String groupCreatedAt(ExpenseGroup group) {
+        return group.getCreatedAt().toString();
+    }
+
+    @SchemaMapping(typeName = "Group", field = "expenses")
+    public Map<String, Object> groupExpenses(ExpenseGroup group, @Argument String payer, @Argument String from, @Argument String to,
+                                             @Argument String after, @Argument int first) {
+        return groupService.getExpensesPage(group.getId(), payer, parseTime(from), parseTime(to), after, first);
+    }
+
+    @SchemaMapping(typeName = "Group", field = "balances")
+    public List<Map<String, Object>> groupBalances(ExpenseGroup group) {
+        return groupService.getBalances(group.getId());
+    }
+
+    @SchemaMapping(typeName = "Group", field = "settlements")
+    public SettlementReport groupSettlements(ExpenseGroup group, @Argument String strategy) {
+        return groupService.getSettlements(group.getId(), strategy);
+    }
+
+    /**
+     * Validation failures are reported as BAD_REQUEST errors with their message, like the REST endpoints' 400s.
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError invalidArgument(IllegalArgumentException e, DataFetchingEnvironment environment) {
+        return GraphqlErrorBuilder.newError(environment)
+                .errorType(ErrorType.BAD_REQUEST)
+                .message(e.getMessage())
+                .build();
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        try {
+            return value == null ? null : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date-time: " + value);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.splitapp.backend.graphql;
+
+import graphql.GraphQLContext;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.CoercedVariables;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.language.FloatValue;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * GraphQL wiring: the {@code Decimal} scalar and the limits that keep a single query from monopolising the database.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    static final GraphQLScalarType DECIMAL = GraphQLScalarType.newScalar()
+            .name("Decimal")
+            .description("Exact decimal amount, serialized as a string")
+            .coercing(new Coercing<BigDecimal, String>() {
+                @Override
+                public String serialize(Object value, GraphQLContext context, Locale locale) {
+                    if (value instanceof BigDecimal decimal) {
+                        return decimal.toPlainString();
+                    }
+                    throw new CoercingSerializeException("Not a decimal: " + value);
+                }
+
+                @Override
+                public BigDecimal parseValue(Object input, GraphQLContext context, Locale locale) {
+                    try {
+                        return new BigDecimal(input.toString());
+                    } catch (NumberFormatException e) {
+                        throw new CoercingParseValueException("Not a decimal: " + input);
+                    }
+                }
+
+                @Override
+                public BigDecimal parseLiteral(graphql.language.Value<?> input, CoercedVariables variables, GraphQLContext context, Locale locale) {
+                    if (input instanceof StringValue s) {
+                        return parseValue(s.getValue(), context, locale);
+                    }
+                    if (input instanceof IntValue i) {
+                        return new BigDecimal(i.getValue());
+                    }
+                    if (input instanceof FloatValue f) {
+                        return f.getValue();
+                    }
+                    throw new CoercingParseLiteralException("Not a decimal: " + input);
+                }
+            })
+            .build();
+
+    @Bean
+    RuntimeWiringConfigurer decimalScalar() {
+        return wiring -> wiring.scalar(DECIMAL);
+    }
+
+    /**
+     * Rejects queries nested deeper than the limit before anything runs.
+     */
+    @Bean
+    Instrumentation maxQueryDepth(@Value("${splitapp.graphql.max-depth:10}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * Rejects queries whose estimated cost is over the limit before anything runs. Every field costs 1, and a paged
+     * field multiplies the cost of its selection by the page size it asks for, so 100 expenses with their splits cost
+     * about 100 times one expense with its splits.
+     */
+    @Bean
+    Instrumentation maxQueryComplexity(@Value("${splitapp.graphql.max-complexity:20000}") int maxComplexity) {
+        FieldComplexityCalculator calculator = (environment, childComplexity) ->
+                environment.getArguments().get("first") instanceof Integer first
+                        ? 1 + Math.max(first, 1) * childComplexity
+                        : 1 + childComplexity;
+        return new MaxQueryComplexityInstrumentation(maxComplexity, calculator);
+    }
+}
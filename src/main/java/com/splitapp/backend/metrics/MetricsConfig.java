@@ -0,0 +1,42 @@
+package com.splitapp.backend.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires application metrics: {@code @Timed} support and the per-request SQL statement counter.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Makes {@code @Timed} on service classes record timers.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Routes every statement run on the application's DataSource through the counter. Wraps the outermost
+     * {@code dataSource} bean only, so a replica setup (routing in front of two pools) counts each statement once.
+     */
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor(ObjectProvider<SqlStatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource) {
+                    return new StatementCountingDataSource(dataSource, counter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.splitapp.backend.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements run on the current thread, so the statements issued per request can be recorded
+ * (see {@link SqlStatementMetricsFilter}). Fed by {@link StatementCountingDataSource}, so JdbcTemplate and COPY
+ * statements count as well as Hibernate's. Optionally logs a sample of one in every N statements, in place of show-sql.
+ */
+@Component
+public class SqlStatementCounter {
+
+    private static final Logger log = LoggerFactory.getLogger("com.splitapp.sql.sample");
+
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+    private final AtomicLong total = new AtomicLong();
+    private final int sampleRate;
+
+    public SqlStatementCounter(@Value("${splitapp.sql.log-sample-rate:0}") int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Count one statement on the current thread.
+     */
+    void record(String sql) {
+        count.get()[0]++;
+        long n = total.incrementAndGet();
+        if (sampleRate > 0 && n % sampleRate == 0) {
+            log.info("Sampled SQL (1 in {}): {}", sampleRate, sql);
+        }
+    }
+
+    /**
+     * Reset the count of the current thread to zero.
+     */
+    public void reset() {
+        count.get()[0] = 0;
+    }
+
+    /**
+     * Statements run by the current thread since the last reset.
+     */
+    public int current() {
+        return count.get()[0];
+    }
+}
@@ -0,0 +1,121 @@
+package com.splitapp.backend.metrics;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyDual;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.CopyOut;
+import org.postgresql.core.BaseConnection;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Reports every SQL statement sent over its connections to a {@link SqlStatementCounter}, whatever sent it:
+ * Hibernate, JdbcTemplate or plain JDBC. Each statement execution counts once (a JDBC batch too), as does each
+ * COPY through the PostgreSQL driver's {@link CopyManager}.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch");
+
+    private final SqlStatementCounter counter;
+
+    public StatementCountingDataSource(DataSource target, SqlStatementCounter counter) {
+        super(target);
+        this.counter = counter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("unwrap") && args[0] == PGConnection.class) {
+                        return countingCopies(connection.unwrap(PGConnection.class), connection.unwrap(BaseConnection.class));
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        // prepareStatement/prepareCall know their SQL up front; createStatement gets it per execute
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return counting(statement, method.getReturnType(), sql, (Connection) proxy);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement counting(Statement statement, Class<?> type, String preparedSql, Connection connection) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (EXECUTE.contains(method.getName())) {
+                        counter.record(preparedSql != null ? preparedSql
+                                : args != null && args.length > 0 && args[0] instanceof String sql ? sql : "(batch)");
+                    } else if (method.getName().equals("getConnection")) {
+                        return connection;
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private PGConnection countingCopies(PGConnection connection, BaseConnection base) {
+        return (PGConnection) Proxy.newProxyInstance(PGConnection.class.getClassLoader(), new Class<?>[]{PGConnection.class},
+                (proxy, method, args) -> method.getName().equals("getCopyAPI")
+                        ? new CountingCopyManager(base, counter)
+                        : invoke(connection, method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Every copy method of {@link CopyManager}, streams included, starts the operation through one of these.
+     */
+    private static final class CountingCopyManager extends CopyManager {
+
+        private final SqlStatementCounter counter;
+
+        CountingCopyManager(BaseConnection connection, SqlStatementCounter counter) throws SQLException {
+            super(connection);
+            this.counter = counter;
+        }
+
+        @Override
+        public CopyIn copyIn(String sql) throws SQLException {
+            counter.record(sql);
+            return super.copyIn(sql);
+        }
+
+        @Override
+        public CopyOut copyOut(String sql) throws SQLException {
+            counter.record(sql);
+            return super.copyOut(sql);
+        }
+
+        @Override
+        public CopyDual copyDual(String sql) throws SQLException {
+            counter.record(sql);
+            return super.copyDual(sql);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.splitapp.backend.migration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned SQL scripts in {@code classpath:db/migration} ({@code V<version>__<description>.sql},
+ * Flyway's naming) that have not run yet, in version order, each in its own transaction.
+ * <p>
+ * Tables and columns still come from Hibernate's {@code ddl-auto=update}; these scripts hold what it cannot
+ * express, such as covering indexes. They run once the entity manager factory (and so the schema update) is ready.
+ * Applied versions are recorded with a checksum in {@code schema_migration}; editing an applied script fails startup.
+ * Skipped with {@code splitapp.schema.update=false}.
+ */
+@Component
+public class SchemaMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+
+    public SchemaMigrator(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                          EntityManagerFactory entityManagerFactory, // Injected only to run after the schema update
+                          @Value("${splitapp.schema.update:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void migrate() {
+        if (!enabled) {
+            return;
+        }
+        jdbc.execute("CREATE TABLE IF NOT EXISTS schema_migration (version integer PRIMARY KEY, description text NOT NULL, " +
+                "checksum bigint NOT NULL, applied_at timestamp NOT NULL DEFAULT now())");
+        for (Migration migration : findMigrations()) {
+            tx.executeWithoutResult(status -> apply(migration));
+        }
+    }
+
+    private void apply(Migration migration) {
+        jdbc.execute("SELECT pg_advisory_xact_lock(hashtext('schema_migration'))"); // One node migrates at a time
+        List<Long> applied = jdbc.queryForList("SELECT checksum FROM schema_migration WHERE version = ?", Long.class, migration.version());
+        if (!applied.isEmpty()) {
+            if (applied.get(0) != migration.checksum()) {
+                throw new IllegalStateException("Migration V" + migration.version() + " was changed after it was applied");
+            }
+            return;
+        }
+
+        log.info("Applying schema migration V{} ({})", migration.version(), migration.description());
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            ScriptUtils.executeSqlScript(con, migration.script());
+            return null;
+        });
+        jdbc.update("INSERT INTO schema_migration (version, description, checksum) VALUES (?, ?, ?)",
+                migration.version(), migration.description(), migration.checksum());
+    }
+
+    private static List<Migration> findMigrations() {
+        try {
+            List<Migration> migrations = new ArrayList<>();
+            Map<Integer, String> seen = new HashMap<>();
+            for (Resource script : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                Matcher m = NAME.matcher(script.getFilename());
+                if (!m.matches()) {
+                    continue;
+                }
+                int version = Integer.parseInt(m.group(1));
+                if (seen.put(version, script.getFilename()) != null) {
+                    throw new IllegalStateException("Duplicate migration version V" + version);
+                }
+                CRC32 crc = new CRC32();
+                crc.update(StreamUtils.copyToByteArray(script.getInputStream()));
+                migrations.add(new Migration(version, m.group(2).replace('_', ' '), crc.getValue(), script));
+            }
+            migrations.sort(Comparator.comparingInt(Migration::version));
+            return migrations;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read schema migrations", e);
+        }
+    }
+
+    private record Migration(int version, String description, long checksum, Resource script) {
+    }
+}
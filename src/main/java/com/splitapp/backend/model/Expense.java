@@ -1,15 +1,21 @@
 package com.splitapp.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expense")
+@Table(name = "expense", indexes = {
+        @Index(name = "idx_expense_created_at_id", columnList = "createdAt, id"), // Keyset pagination order
+        @Index(name = "idx_expense_paid_by_created_at_id", columnList = "paid_by_id, createdAt, id"), // Payer filter
+        @Index(name = "idx_expense_group_created_at_id", columnList = "group_id, createdAt, id") // Group-scoped pages
+})
 public class Expense {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expense_seq", allocationSize = 50) // Pooled ids let Hibernate batch inserts
     private Long id;
 
     @Column(nullable = false)
@@ -25,6 +31,18 @@ public class Expense {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "group_id")
+    private Long groupId; // Owning group, null for expenses outside any group
+
+    @Column(nullable = false)
+    @ColumnDefault("1") // Lets the column be added to tables that already hold expenses
+    private int revision = 1; // Incremented on every edit; only splits of the current revision are live
+
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0") // Also covers rows inserted by the CSV import, which does not set it
+    private long version; // Optimistic lock: a write based on an older version fails instead of overwriting
+
     // Default constructor sets current timestamp
     public Expense() {
         this.createdAt = LocalDateTime.now();
@@ -77,4 +95,24 @@ public class Expense {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,69 @@
+package com.splitapp.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An independent set of expenses (a trip, a household, ...).
+ * Balances and settlements of a group only ever look at that group's rows.
+ */
+@Entity
+@Table(name = "expense_group") // "group" is a reserved word in SQL
+public class ExpenseGroup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment primary key
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private long dataVersion; // Bumped in the same transaction as every change to the group's balances
+
+    // Default constructor sets current timestamp
+    public ExpenseGroup() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public ExpenseGroup(String name) {
+        this.name = name;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public void setDataVersion(long dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+}
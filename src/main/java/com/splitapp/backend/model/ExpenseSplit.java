@@ -1,14 +1,19 @@
 package com.splitapp.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expense_split")
+@Table(name = "expense_split", indexes = {
+        @Index(name = "idx_expense_split_group_person", columnList = "group_id, person_id") // Group-scoped aggregates
+}) // Covering indexes on person_id and expense_id come from db/migration
 public class ExpenseSplit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_split_seq")
+    @SequenceGenerator(name = "expense_split_seq", sequenceName = "expense_split_seq", allocationSize = 50) // Pooled ids let Hibernate batch inserts
     private Long id;
 
     @ManyToOne(optional = false)
@@ -27,6 +32,16 @@ public class ExpenseSplit {
 
     private BigDecimal shareValue; // Used if shareType is not EQUAL
 
+    @Column(name = "group_id")
+    private Long groupId; // Copy of the expense's group, so group queries never join through expense
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt; // Copy of the expense's creation time, so a person's splits are indexed in time order
+
+    @Column(nullable = false)
+    @ColumnDefault("1") // Lets the column be added to tables that already hold splits
+    private int revision = 1; // Expense revision these splits belong to; older revisions are kept as history
+
     // Default constructor for JPA
     public ExpenseSplit() {}
 
@@ -36,6 +51,9 @@ public class ExpenseSplit {
         this.amountOwed = amountOwed;
         this.shareType = shareType;
         this.shareValue = shareValue;
+        this.groupId = expense.getGroupId();
+        this.createdAt = expense.getCreatedAt();
+        this.revision = expense.getRevision();
     }
 
     // Getters
@@ -63,6 +81,18 @@ public class ExpenseSplit {
         return shareValue;
     }
 
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
     // Setters
     public void setId(Long id) {
         this.id = id;
@@ -87,4 +117,16 @@ public class ExpenseSplit {
     public void setShareValue(BigDecimal shareValue) {
         this.shareValue = shareValue;
     }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
 }
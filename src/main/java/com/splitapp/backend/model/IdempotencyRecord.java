@@ -0,0 +1,61 @@
+package com.splitapp.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key header.
+ * The row is claimed (inserted) in the same transaction as the write it guards and completed before that
+ * transaction commits, so a committed row always carries the response that went with the write.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_created_at", columnList = "created_at") // Expiry sweep
+})
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idem_key", length = 255)
+    private String key; // Client-chosen key; the primary key makes concurrent claims of one key take turns
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request, to reject a key reused for a different request
+
+    @Column(name = "status_code")
+    private Integer statusCode; // Null only while the claiming transaction is still running
+
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody; // JSON body of the stored response
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor for JPA
+    public IdempotencyRecord() {}
+
+    // Getters and setters
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void complete(int statusCode, String responseBody) {
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+}
@@ -0,0 +1,84 @@
+package com.splitapp.backend.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One immutable line of the balance ledger: a signed amount credited to (positive) or debited from
+ * (negative) a person because of an expense. Rows are only ever appended; an edit appends a reversal
+ * of the expense's previous entries followed by its new ones, so the table doubles as an audit history.
+ * Ids come from an identity column at insert time, so entries committed later always have larger ids.
+ */
+@Entity
+@Table(name = "ledger_entry", indexes = {
+        @Index(name = "idx_ledger_entry_expense", columnList = "expense_id, id"), // History and reversal of one expense
+        @Index(name = "idx_ledger_entry_group_id", columnList = "group_id, id") // Group tail after a snapshot
+})
+public class LedgerEntry {
+
+    public static final String EXPENSE = "EXPENSE";
+    public static final String REVERSAL = "REVERSAL";
+    public static final String REBUILD = "REBUILD";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId; // Not a foreign key: entries outlive a deleted expense
+
+    @Column(nullable = false)
+    private int revision; // Expense revision the entry belongs to
+
+    @Column(nullable = false, length = 16)
+    private String kind; // EXPENSE, REVERSAL or REBUILD
+
+    @Column(name = "group_id")
+    private Long groupId;
+
+    @Column(name = "person_id", nullable = false)
+    private Long personId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor for JPA
+    public LedgerEntry() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.splitapp.backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A checkpoint of the balance ledger: every entry up to and including {@code lastEntryId} is folded
+ * into the snapshot's {@link LedgerSnapshotBalance} rows, so current balances only need the entries after it.
+ */
+@Entity
+@Table(name = "ledger_snapshot")
+public class LedgerSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private long lastEntryId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Default constructor for JPA
+    public LedgerSnapshot() {}
+
+    public LedgerSnapshot(long lastEntryId) {
+        this.lastEntryId = lastEntryId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,74 @@
+package com.splitapp.backend.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Net balance of one person within one group as of a ledger snapshot.
+ * Expenses outside any group use group key 0, so a person's global balance is the sum over their rows.
+ */
+@Entity
+@Table(name = "ledger_snapshot_balance")
+@IdClass(LedgerSnapshotBalance.Key.class)
+public class LedgerSnapshotBalance {
+
+    @Id
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+
+    @Id
+    @Column(name = "group_key")
+    private Long groupKey; // Group id, or 0 for expenses outside any group
+
+    @Id
+    @Column(name = "person_id")
+    private Long personId;
+
+    @Column(nullable = false)
+    private BigDecimal netBalance; // Positive: is owed money, negative: owes money
+
+    // Default constructor for JPA
+    public LedgerSnapshotBalance() {}
+
+    // Getters
+    public Long getSnapshotId() {
+        return snapshotId;
+    }
+
+    public Long getGroupKey() {
+        return groupKey;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public BigDecimal getNetBalance() {
+        return netBalance;
+    }
+
+    /**
+     * Composite primary key of a snapshot balance.
+     */
+    public static class Key implements Serializable {
+
+        private Long snapshotId;
+        private Long groupKey;
+        private Long personId;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(snapshotId, k.snapshotId)
+                    && Objects.equals(groupKey, k.groupKey) && Objects.equals(personId, k.personId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(snapshotId, groupKey, personId);
+        }
+    }
+}
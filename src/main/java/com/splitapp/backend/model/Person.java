@@ -1,9 +1,11 @@
 package com.splitapp.backend.model;
 
+import com.splitapp.backend.service.PersonCacheInvalidator;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "person")
+@EntityListeners(PersonCacheInvalidator.class) // Keeps the name -> id cache in sync on rename/delete
 public class Person {
 
     @Id
@@ -0,0 +1,57 @@
+package com.splitapp.backend.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Undirected edge of the debt graph: the two people have shared at least one expense.
+ * Stored once per pair with lowId < highId. Links are only added, never removed, so the
+ * connected components they form may be coarser than the live expenses imply, but never finer.
+ */
+@Entity
+@Table(name = "person_link")
+@IdClass(PersonLink.Key.class)
+public class PersonLink {
+
+    @Id
+    @Column(name = "low_id")
+    private Long lowId;
+
+    @Id
+    @Column(name = "high_id")
+    private Long highId;
+
+    // Default constructor for JPA
+    public PersonLink() {}
+
+    // Getters
+    public Long getLowId() {
+        return lowId;
+    }
+
+    public Long getHighId() {
+        return highId;
+    }
+
+    /**
+     * Composite primary key of a link.
+     */
+    public static class Key implements Serializable {
+
+        private Long lowId;
+        private Long highId;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Objects.equals(lowId, k.lowId) && Objects.equals(highId, k.highId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lowId, highId);
+        }
+    }
+}
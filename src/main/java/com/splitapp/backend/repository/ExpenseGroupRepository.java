@@ -0,0 +1,35 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.model.ExpenseGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ExpenseGroupRepository extends JpaRepository<ExpenseGroup, Long> {
+
+    /**
+     * Returns the data version of a group without loading the entity.
+     */
+    @Query("SELECT g.dataVersion FROM ExpenseGroup g WHERE g.id = :id")
+    Optional<Long> findDataVersion(@Param("id") Long id);
+
+    /**
+     * Bumps the data version of every given group. Rows are locked in ascending id order
+     * so concurrent writers touching overlapping groups cannot deadlock.
+     */
+    @Modifying
+    @Query(value = "UPDATE expense_group SET data_version = data_version + 1 WHERE id IN (" +
+            "SELECT id FROM expense_group WHERE id = ANY(CAST(:ids AS bigint[])) ORDER BY id FOR UPDATE)",
+            nativeQuery = true)
+    void bumpDataVersions(@Param("ids") Long[] ids);
+
+    /**
+     * Bumps the data version of every group (after a ledger rebuild).
+     */
+    @Modifying
+    @Query(value = "UPDATE expense_group SET data_version = data_version + 1", nativeQuery = true)
+    void bumpAllDataVersions();
+}
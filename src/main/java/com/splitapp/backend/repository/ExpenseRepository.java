@@ -2,6 +2,17 @@ package com.splitapp.backend.repository;
 
 import com.splitapp.backend.model.Expense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+import java.util.List;
+
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
+
+    /**
+     * Returns [personId, total paid] pairs, aggregated in the database.
+     * Used to rebuild and verify the balance ledger.
+     */
+    @Query("SELECT e.paidBy.id, SUM(e.amount) FROM Expense e GROUP BY e.paidBy.id")
+    List<Object[]> sumPaidByPerson();
 }
@@ -0,0 +1,26 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.model.Expense;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered expense queries ordered by (createdAt, id), built dynamically from the optional filters.
+ * A null filter argument means "no restriction".
+ */
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} expenses strictly after the (afterCreatedAt, afterId) keyset cursor.
+     * Pass a null cursor for the first page.
+     */
+    List<Expense> findPage(Long groupId, String payer, LocalDateTime from, LocalDateTime to,
+                           LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Streams every matching expense from a database cursor. Must be consumed inside a transaction and closed.
+     */
+    Stream<Expense> streamAll(String payer, LocalDateTime from, LocalDateTime to);
+}
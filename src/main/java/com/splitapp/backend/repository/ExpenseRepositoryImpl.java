@@ -0,0 +1,74 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.model.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * JPQL implementation of {@link ExpenseRepositoryCustom}.
+ */
+class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500; // Rows per round trip when reading from a cursor
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Expense> findPage(Long groupId, String payer, LocalDateTime from, LocalDateTime to,
+                                  LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return query(groupId, payer, from, to, afterCreatedAt, afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Expense> streamAll(String payer, LocalDateTime from, LocalDateTime to) {
+        return query(null, payer, from, to, null, null)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<Expense> query(Long groupId, String payer, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime afterCreatedAt, Long afterId) {
+        StringBuilder jpql = new StringBuilder("SELECT e FROM Expense e JOIN FETCH e.paidBy p WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (groupId != null) {
+            jpql.append(" AND e.groupId = :groupId");
+            params.put("groupId", groupId);
+        }
+        if (payer != null) {
+            jpql.append(" AND p.name = :payer");
+            params.put("payer", payer);
+        }
+        if (from != null) {
+            jpql.append(" AND e.createdAt >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND e.createdAt < :to");
+            params.put("to", to);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // Row-value form, so the index range starts at the cursor instead of filtering everything before it
+            jpql.append(" AND (e.createdAt, e.id) > (:afterCreatedAt, :afterId)");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY e.createdAt, e.id");
+
+        TypedQuery<Expense> query = em.createQuery(jpql.toString(), Expense.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
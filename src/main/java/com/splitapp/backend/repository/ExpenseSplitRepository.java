@@ -4,34 +4,57 @@ import com.splitapp.backend.model.Expense;
 import com.splitapp.backend.model.ExpenseSplit;
 import com.splitapp.backend.model.Person;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long> {
 
     /**
-     * Returns all split records for a given expense.
+     * Returns all split records for a given expense, of every revision.
      * @param expense the expense entity
      * @return list of ExpenseSplit entries
      */
     List<ExpenseSplit> findByExpense(Expense expense);
 
     /**
-     * Returns all split records associated with a specific person.
+     * Returns the live splits (current revision) of many expenses in one query, with their person and expense fetched.
+     */
+    @Query("SELECT s FROM ExpenseSplit s JOIN FETCH s.person JOIN FETCH s.expense e JOIN FETCH e.paidBy " +
+            "WHERE e.id IN :expenseIds AND s.revision = e.revision ORDER BY s.id")
+    List<ExpenseSplit> findCurrentByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
+
+    /**
+     * Returns the live splits (current revision) of a specific person.
      * @param person the person entity
      * @return list of ExpenseSplit entries
      */
-    List<ExpenseSplit> findByPerson(Person person);
+    @Query("SELECT s FROM ExpenseSplit s WHERE s.person = :person AND s.revision = s.expense.revision")
+    List<ExpenseSplit> findByPerson(@Param("person") Person person);
 
     /**
-     * Returns split details for a specific person in a specific expense.
+     * Returns the live split details (current revision) for a specific person in a specific expense.
      * Useful for validations or detailed views.
      */
-    List<ExpenseSplit> findByPersonAndExpense(Person person, Expense expense);
+    @Query("SELECT s FROM ExpenseSplit s WHERE s.person = :person AND s.expense = :expense AND s.revision = s.expense.revision")
+    List<ExpenseSplit> findByPersonAndExpense(@Param("person") Person person, @Param("expense") Expense expense);
 
     /**
-     * Deletes all splits related to a given expense ID.
+     * Deletes all splits (every revision) related to a given expense ID in one statement.
      * Useful when deleting the entire expense and its shares.
      */
-    void deleteAllByExpenseId(Long expenseId);
+    @Modifying
+    @Query("DELETE FROM ExpenseSplit s WHERE s.expense.id = :expenseId")
+    void deleteAllByExpenseId(@Param("expenseId") Long expenseId);
+
+    /**
+     * Returns [personId, total owed] pairs over live splits (current revisions), aggregated in the database.
+     * Used to rebuild and verify the balance ledger.
+     */
+    @Query("SELECT s.person.id, SUM(s.amountOwed) FROM ExpenseSplit s WHERE s.revision = s.expense.revision GROUP BY s.person.id")
+    List<Object[]> sumOwedByPerson();
+
 }
@@ -0,0 +1,28 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key for the current transaction; returns 0 if it is already taken.
+     * While another transaction holds an uncommitted claim on the key, this waits for it to finish.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idem_key, request_hash, created_at) VALUES (:key, :requestHash, :createdAt) " +
+            "ON CONFLICT (idem_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Deletes the records created before the given time.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,94 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.model.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    /**
+     * Appends one entry per array index in a single insert, amounts in minor units. Ids are assigned by the database.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ledger_entry (expense_id, revision, kind, group_id, person_id, amount, created_at) " +
+            "SELECT t.expense_id, t.revision, t.kind, t.group_id, t.person_id, t.amount * 0.01, LOCALTIMESTAMP " +
+            "FROM unnest(CAST(:expenseIds AS bigint[]), CAST(:revisions AS integer[]), CAST(:kinds AS varchar[]), " +
+            "CAST(:groupIds AS bigint[]), CAST(:personIds AS bigint[]), CAST(:amounts AS bigint[])) " +
+            "AS t(expense_id, revision, kind, group_id, person_id, amount)",
+            nativeQuery = true)
+    void append(@Param("expenseIds") Long[] expenseIds, @Param("revisions") Integer[] revisions, @Param("kinds") String[] kinds,
+                @Param("groupIds") Long[] groupIds, @Param("personIds") Long[] personIds, @Param("amounts") Long[] amounts);
+
+    /**
+     * Returns [groupId, personId, net amount] of everything an expense has contributed so far, skipping zero nets.
+     */
+    @Query("SELECT e.groupId, e.personId, SUM(e.amount) FROM LedgerEntry e WHERE e.expenseId = :expenseId " +
+            "GROUP BY e.groupId, e.personId HAVING SUM(e.amount) <> 0")
+    List<Object[]> findNetOfExpense(@Param("expenseId") Long expenseId);
+
+    /**
+     * Returns [entry id, revision, kind, person name, amount, created at] of one expense, oldest first.
+     */
+    @Query("SELECT e.id, e.revision, e.kind, p.name, e.amount, e.createdAt FROM LedgerEntry e " +
+            "JOIN Person p ON p.id = e.personId WHERE e.expenseId = :expenseId ORDER BY e.id")
+    List<Object[]> findHistory(@Param("expenseId") Long expenseId);
+
+    /**
+     * Returns [personId, person name, net balance] of everybody: the snapshot's balances plus every later entry.
+     */
+    @Query(value = "SELECT t.person_id, p.name, SUM(t.amount) FROM (" +
+            "SELECT person_id, net_balance AS amount FROM ledger_snapshot_balance WHERE snapshot_id = :snapshotId " +
+            "UNION ALL SELECT person_id, amount FROM ledger_entry WHERE id > :lastEntryId" +
+            ") t JOIN person p ON p.id = t.person_id GROUP BY t.person_id, p.name ORDER BY p.name", nativeQuery = true)
+    List<Object[]> findBalancesSince(@Param("snapshotId") long snapshotId, @Param("lastEntryId") long lastEntryId);
+
+    /**
+     * Returns [person name, net balance] within one group: the snapshot's balances plus every later entry of the group.
+     */
+    @Query(value = "SELECT p.name, SUM(t.amount) FROM (" +
+            "SELECT person_id, net_balance AS amount FROM ledger_snapshot_balance WHERE snapshot_id = :snapshotId AND group_key = :groupId " +
+            "UNION ALL SELECT person_id, amount FROM ledger_entry WHERE group_id = :groupId AND id > :lastEntryId" +
+            ") t JOIN person p ON p.id = t.person_id GROUP BY p.name ORDER BY p.name", nativeQuery = true)
+    List<Object[]> findGroupBalancesSince(@Param("snapshotId") long snapshotId, @Param("lastEntryId") long lastEntryId,
+                                          @Param("groupId") Long groupId);
+
+    /**
+     * Id of the newest entry, or 0 when the ledger is empty.
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM LedgerEntry e")
+    long findLastId();
+
+    /**
+     * Number of entries appended after the given id.
+     */
+    @Query("SELECT COUNT(e) FROM LedgerEntry e WHERE e.id > :id")
+    long countAfter(@Param("id") long id);
+
+    /**
+     * Appends, per (expense, group, person), the entry that makes the ledger match the raw expense tables
+     * (current split revisions only). Returns the number of correcting entries.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ledger_entry (expense_id, revision, kind, group_id, person_id, amount, created_at) " +
+            "SELECT t.expense_id, COALESCE(x.revision, 0), 'REBUILD', t.group_id, t.person_id, SUM(t.amount), LOCALTIMESTAMP FROM (" +
+            "SELECT id AS expense_id, group_id, paid_by_id AS person_id, amount FROM expense " +
+            "UNION ALL SELECT s.expense_id, s.group_id, s.person_id, -s.amount_owed FROM expense_split s " +
+            "JOIN expense e ON e.id = s.expense_id AND e.revision = s.revision " +
+            "UNION ALL SELECT expense_id, group_id, person_id, -amount FROM ledger_entry" +
+            ") t LEFT JOIN expense x ON x.id = t.expense_id " +
+            "GROUP BY t.expense_id, x.revision, t.group_id, t.person_id HAVING SUM(t.amount) <> 0", nativeQuery = true)
+    int appendCorrections();
+
+    /**
+     * Waits for in-flight appends to commit and blocks new ones (but not reads) until the surrounding
+     * transaction ends, so every entry up to the current maximum id is visible. Conflicts with itself,
+     * so two snapshots never run at once.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE ledger_entry IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockAppends();
+}
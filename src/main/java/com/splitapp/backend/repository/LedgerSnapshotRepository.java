@@ -0,0 +1,44 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.model.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+
+    /**
+     * Returns the newest snapshot, if any has been taken.
+     */
+    Optional<LedgerSnapshot> findTopByOrderByIdDesc();
+
+    /**
+     * Fills a new snapshot with the previous snapshot's balances plus the entries in (previousLastEntryId, lastEntryId].
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ledger_snapshot_balance (snapshot_id, group_key, person_id, net_balance) " +
+            "SELECT :snapshotId, t.group_key, t.person_id, SUM(t.amount) FROM (" +
+            "SELECT group_key, person_id, net_balance AS amount FROM ledger_snapshot_balance WHERE snapshot_id = :previousId " +
+            "UNION ALL SELECT COALESCE(group_id, 0), person_id, amount FROM ledger_entry " +
+            "WHERE id > :previousLastEntryId AND id <= :lastEntryId" +
+            ") t GROUP BY t.group_key, t.person_id", nativeQuery = true)
+    void insertBalances(@Param("snapshotId") long snapshotId, @Param("previousId") long previousId,
+                        @Param("previousLastEntryId") long previousLastEntryId, @Param("lastEntryId") long lastEntryId);
+
+    /**
+     * Drops the balances of every snapshot older than the given one.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ledger_snapshot_balance WHERE snapshot_id < :snapshotId", nativeQuery = true)
+    void deleteBalancesBefore(@Param("snapshotId") long snapshotId);
+
+    /**
+     * Drops every snapshot older than the given one.
+     */
+    @Modifying
+    @Query("DELETE FROM LedgerSnapshot s WHERE s.id < :snapshotId")
+    void deleteBefore(@Param("snapshotId") long snapshotId);
+}
@@ -0,0 +1,37 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.model.PersonLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PersonLinkRepository extends JpaRepository<PersonLink, PersonLink.Key> {
+
+    /**
+     * Returns every link as a [lowId, highId] pair without materialising entities.
+     */
+    @Query("SELECT l.lowId, l.highId FROM PersonLink l")
+    List<Object[]> findAllPairs();
+
+    /**
+     * Records links between lowIds[i] and highIds[i], skipping pairs that already exist.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO person_link (low_id, high_id) " +
+            "SELECT * FROM unnest(CAST(:lowIds AS bigint[]), CAST(:highIds AS bigint[])) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertLinks(@Param("lowIds") Long[] lowIds, @Param("highIds") Long[] highIds);
+
+    /**
+     * Recreates links from the raw expense tables (payer to each other participant).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO person_link (low_id, high_id) " +
+            "SELECT DISTINCT LEAST(e.paid_by_id, s.person_id), GREATEST(e.paid_by_id, s.person_id) " +
+            "FROM expense_split s JOIN expense e ON e.id = s.expense_id AND e.revision = s.revision WHERE e.paid_by_id <> s.person_id " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertLinksFromExpenses();
+}
@@ -2,7 +2,12 @@ package com.splitapp.backend.repository;
 
 import com.splitapp.backend.model.Person;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PersonRepository extends JpaRepository<Person, Long> {
@@ -12,4 +17,16 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
 
     // Check if a person with the given name exists
     boolean existsByName(String name);
+
+    // Find all people whose name is in the given collection (single IN query)
+    List<Person> findByNameIn(Collection<String> names);
+
+    /**
+     * Inserts every name that does not exist yet in one statement.
+     * Names created concurrently by another transaction are skipped instead of failing.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO person (name) SELECT DISTINCT n FROM unnest(CAST(:names AS varchar[])) AS n " +
+            "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertMissing(@Param("names") String[] names);
 }
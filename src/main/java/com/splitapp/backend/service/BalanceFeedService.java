@@ -0,0 +1,281 @@
+package com.splitapp.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-sent change feed of per-person balance deltas ({@code GET /expenses/balances/stream}).
+ * <p>
+ * Event ids are ledger entry ids: an event with id N carries the summed entries after the previous event's id,
+ * up to and including N, so a client reconnecting with {@code Last-Event-ID} gets exactly what it missed from the
+ * ledger, on any node. The ledger is polled rather than hooked into commits, so writes on other nodes show up too.
+ * <p>
+ * Entry ids are handed out at insert time, not at commit, so a transaction still running can commit ids below
+ * ones already visible. Each poll therefore notes the highest visible id together with the transactions running
+ * at that moment ({@code pg_current_snapshot()}); that id is only published once all of those have finished.
+ * A long-running transaction anywhere in the cluster delays the feed, but never makes it skip entries.
+ * <p>
+ * Subscribers are async requests, so idle ones hold no thread. A node without subscribers does not poll.
+ * Subscribers that received the same last event share one delta query and one built event per poll, and events are
+ * sent outside the feed lock, so a slow client or a whole-ledger catch-up does not hold up the others.
+ */
+@Service
+public class BalanceFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceFeedService.class);
+
+    private static final String HORIZON_SQL =
+            "SELECT pg_current_snapshot()::text, (SELECT COALESCE(MAX(id), 0) FROM ledger_entry)";
+    private static final String DELTAS_SQL =
+            "SELECT p.name, SUM(e.amount) FROM ledger_entry e JOIN person p ON p.id = e.person_id " +
+            "WHERE e.id > ? AND e.id <= ? GROUP BY p.name HAVING SUM(e.amount) <> 0 ORDER BY p.name";
+
+    private final JdbcTemplate jdbc;
+    private final long emitterTimeoutMillis;
+    private final int maxSubscribers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock lock = new ReentrantLock(); // Guards pending and published; no I/O to clients under it
+    private final ReentrantLock pollLock = new ReentrantLock(); // One poll delivers at a time, so events stay in order
+    private final Deque<Horizon> pending = new ArrayDeque<>(); // Visible ids not yet safe to publish, oldest first
+    private long published = -1; // Id of the last event; -1 until the first poll
+
+    public BalanceFeedService(JdbcTemplate jdbc,
+                              @Value("${splitapp.balance-feed.emitter-timeout:PT30M}") Duration emitterTimeout,
+                              @Value("${splitapp.balance-feed.max-subscribers:10000}") int maxSubscribers) {
+        this.jdbc = jdbc;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Open a subscription. With a last event id (0 for the whole ledger, i.e. full balances), the first event
+     * carries everything after it; without one, the first event is a "ready" event naming the current id.
+     * @throws IllegalArgumentException if the last event id is negative
+     * @throws RejectedExecutionException if this node already has the maximum number of subscribers
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (lastEventId != null && lastEventId < 0) {
+            throw new IllegalArgumentException("Invalid last event id");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many balance stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete); // The client reconnects with Last-Event-ID
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        long target;
+        lock.lock();
+        try {
+            if (published < 0) {
+                advance();
+            }
+            target = published;
+        } finally {
+            lock.unlock();
+        }
+        // Not registered yet, so no poll sends to it meanwhile; a poll after registration sends whatever came after target
+        subscriber.after = lastEventId == null ? target : lastEventId;
+        if (target >= 0) { // Otherwise transactions were running at the first poll, and a later one sends it
+            if (lastEventId == null || lastEventId >= target) {
+                // A resumed id can be ahead of this node's published id; never hand the client an older one
+                sendReady(subscriber, subscriber.after);
+            } else {
+                Set<DataWithMediaType> event = deltasEvent(lastEventId, target);
+                subscriber.after = target;
+                if (event != null) {
+                    send(subscriber, event);
+                }
+            }
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Advance the published id as far as it is safe and push the deltas up to it. Idle while nobody is subscribed.
+     */
+    @Scheduled(fixedDelayString = "${splitapp.balance-feed.poll-interval:PT0.2S}")
+    public void poll() {
+        pollLock.lock();
+        try {
+            long to;
+            lock.lock();
+            try {
+                if (subscribers.isEmpty()) {
+                    pending.clear();
+                    published = -1;
+                    return;
+                }
+                advance();
+                to = published;
+            } finally {
+                lock.unlock();
+            }
+            if (to >= 0) {
+                deliver(to);
+            }
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Bring every subscriber behind {@code to} up to it: one query and one event per distinct last event id.
+     * Normally all subscribers are at the previous published id, so a change costs one query however many there are.
+     */
+    private void deliver(long to) {
+        Map<Long, List<Subscriber>> byAfter = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.after < to) {
+                byAfter.computeIfAbsent(subscriber.after, after -> new ArrayList<>()).add(subscriber);
+            }
+        }
+        byAfter.forEach((after, group) -> {
+            if (after < 0) {
+                for (Subscriber subscriber : group) {
+                    sendReady(subscriber, to);
+                }
+                return;
+            }
+            Set<DataWithMediaType> event = deltasEvent(after, to);
+            for (Subscriber subscriber : group) {
+                subscriber.after = to;
+                if (event != null) {
+                    send(subscriber, event);
+                }
+            }
+        });
+    }
+
+    // Caller holds the lock; only moves the published id, deliver() sends up to it
+    private void advance() {
+        Horizon now = jdbc.queryForObject(HORIZON_SQL, (rs, rowNum) -> new Horizon(rs.getLong(2), runningTransactions(rs.getString(1))));
+        if (now.maxId() > Math.max(published, pending.isEmpty() ? -1 : pending.peekLast().maxId())) {
+            pending.addLast(now);
+        }
+
+        long safe = published;
+        while (!pending.isEmpty() && Collections.disjoint(pending.peekFirst().running(), now.running())) {
+            safe = Math.max(safe, pending.pollFirst().maxId());
+        }
+        published = safe;
+    }
+
+    /**
+     * Comment line to every subscriber, so connections closed by the client are noticed and dropped.
+     */
+    @Scheduled(fixedRateString = "${splitapp.balance-feed.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        Set<DataWithMediaType> event = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, event);
+        }
+    }
+
+    /**
+     * Number of open subscriptions on this node.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * End every stream on shutdown; clients reconnect elsewhere with their last event id.
+     */
+    @PreDestroy
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private void sendReady(Subscriber subscriber, long id) {
+        subscriber.after = id;
+        send(subscriber, SseEmitter.event().name("ready").id(Long.toString(id)).data(Map.of("id", id)).build());
+    }
+
+    /**
+     * The "balances" event for the entries in {@code (from, to]}, built once for any number of subscribers;
+     * null when they net out to nothing, as an edit that kept every share does.
+     */
+    private Set<DataWithMediaType> deltasEvent(long from, long to) {
+        List<Map<String, Object>> deltas = jdbc.query(DELTAS_SQL, (rs, rowNum) -> {
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("name", rs.getString(1));
+            delta.put("delta", rs.getBigDecimal(2));
+            return delta;
+        }, from, to);
+        if (deltas.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("from", from);
+        data.put("to", to);
+        data.put("deltas", deltas);
+        return SseEmitter.event().name("balances").id(Long.toString(to)).data(data).build();
+    }
+
+    private void send(Subscriber subscriber, Set<DataWithMediaType> event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping balance stream subscriber: {}", e.toString());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * In-progress transaction ids of a snapshot in its text form {@code xmin:xmax:xip,...}.
+     */
+    static Set<Long> runningTransactions(String snapshot) {
+        String[] parts = snapshot.split(":", 3);
+        Set<Long> running = new HashSet<>();
+        if (parts.length == 3 && !parts[2].isEmpty()) {
+            for (String xid : parts[2].split(",")) {
+                running.add(Long.parseLong(xid));
+            }
+        }
+        return running;
+    }
+
+    private record Horizon(long maxId, Set<Long> running) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile long after; // Id of the last event this subscriber received
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.model.*;
+import com.splitapp.backend.repository.*;
+import com.splitapp.backend.service.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Maintains the append-only balance ledger.
+ * Expense mutations append signed entries inside the caller's transaction; an edit appends a reversal of
+ * the expense's previous entries and then its new ones, so nothing is ever updated or deleted in place.
+ * Balances are the latest snapshot plus the entries after it, and snapshots are taken periodically
+ * so that tail stays short.
+ */
+@Service
+public class BalanceLedgerService {
+
+    private static final int APPEND_CHUNK = 1000; // Bounds the size of each multi-row insert
+
+    private final LedgerEntryRepository entryRepo;
+    private final LedgerSnapshotRepository snapshotRepo;
+    private final PersonRepository personRepo;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final PersonLinkRepository linkRepo;
+    private final ExpenseGroupRepository groupRepo;
+    private final DataVersionService dataVersion;
+    private final long snapshotEvery;
+
+    public BalanceLedgerService(LedgerEntryRepository entryRepo, LedgerSnapshotRepository snapshotRepo, PersonRepository personRepo,
+                                ExpenseRepository expenseRepo, ExpenseSplitRepository splitRepo,
+                                PersonLinkRepository linkRepo, ExpenseGroupRepository groupRepo, DataVersionService dataVersion,
+                                @Value("${splitapp.ledger.snapshot-every:10000}") long snapshotEvery) {
+        this.entryRepo = entryRepo;
+        this.snapshotRepo = snapshotRepo;
+        this.personRepo = personRepo;
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.linkRepo = linkRepo;
+        this.groupRepo = groupRepo;
+        this.dataVersion = dataVersion;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    /**
+     * Credit the payer and debit every participant of an expense's current revision.
+     */
+    @Transactional
+    public void applyExpense(Expense expense, List<ExpenseSplit> splits) {
+        applyExpenses(List.of(expense), splits);
+    }
+
+    /**
+     * Append the entries of many new expenses at once.
+     */
+    @Transactional
+    public void applyExpenses(List<Expense> expenses, List<ExpenseSplit> splits) {
+        List<Entry> entries = new ArrayList<>(expenses.size() + splits.size());
+        for (Expense e : expenses) {
+            entries.add(new Entry(e.getId(), e.getRevision(), e.getGroupId(), e.getPaidBy().getId(), Money.toMinor(e.getAmount())));
+        }
+        for (ExpenseSplit split : splits) {
+            Expense e = split.getExpense();
+            entries.add(new Entry(e.getId(), split.getRevision(), split.getGroupId(), split.getPerson().getId(), -Money.toMinor(split.getAmountOwed())));
+        }
+        append(LedgerEntry.EXPENSE, entries);
+        recordLinks(splits);
+    }
+
+    /**
+     * Append entries cancelling everything an expense has contributed so far (used before an update and on delete).
+     * The caller must then write the expense under its @Version, so of two edits reversing the same entries
+     * only one can commit.
+     */
+    @Transactional
+    public void revertExpense(Expense expense) {
+        List<Entry> entries = new ArrayList<>();
+        for (Object[] row : entryRepo.findNetOfExpense(expense.getId())) {
+            entries.add(new Entry(expense.getId(), expense.getRevision(), (Long) row[0], (Long) row[1], -Money.toMinor((BigDecimal) row[2])));
+        }
+        append(LedgerEntry.REVERSAL, entries);
+    }
+
+    /**
+     * Read the current balance of every person: the latest snapshot plus the entries after it.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBalances() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : currentBalances()) {
+            result.add(Map.of("name", row[1], "netBalance", row[2]));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Read the balance of every person within one group.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getGroupBalances(Long groupId) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : currentGroupBalances(groupId)) {
+            result.add(Map.of("name", row[0], "netBalance", row[1]));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Read the balances of one group in minor units, keyed by person name, ready for settlement.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getGroupBalancesMinor(Long groupId) {
+        Map<String, Long> result = new HashMap<>();
+        for (Object[] row : currentGroupBalances(groupId)) {
+            result.put((String) row[0], Money.toMinor((BigDecimal) row[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Read the ledger entries of one expense, oldest first: its original entries, then a reversal and
+     * the new entries for every edit. Kept after the expense is deleted.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getHistory(Long expenseId) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : entryRepo.findHistory(expenseId)) {
+            result.add(Map.of("entryId", row[0], "revision", row[1], "kind", row[2], "name", row[3],
+                    "amount", row[4], "createdAt", row[5]));
+        }
+        return result;
+    }
+
+    /**
+     * Read the ledger grouped by connected component of the debt graph.
+     * Nobody in one component ever shared an expense with anyone in another,
+     * so each component can be settled on its own.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Long>> getBalanceComponents() {
+        List<Object[]> rows = currentBalances();
+
+        // Union-find over person ids
+        Map<Long, Long> parent = new HashMap<>();
+        for (Object[] link : linkRepo.findAllPairs()) {
+            Long a = find(parent, (Long) link[0]);
+            Long b = find(parent, (Long) link[1]);
+            if (!a.equals(b)) {
+                parent.put(Math.max(a, b), Math.min(a, b));
+            }
+        }
+
+        Map<Long, Map<String, Long>> components = new TreeMap<>();
+        for (Object[] row : rows) {
+            components.computeIfAbsent(find(parent, (Long) row[0]), k -> new HashMap<>())
+                    .put((String) row[1], Money.toMinor((BigDecimal) row[2]));
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    /**
+     * Recompute balances from the raw expense tables and report every person whose ledger balance drifted.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> verify() {
+        return driftReport(computeFromRawTables());
+    }
+
+    /**
+     * Append, per expense, the entries that bring the ledger (global and per group) back in line with
+     * the raw expense tables. Returns the drift of the global ledger that was found before the rebuild.
+     */
+    @Transactional
+    public Map<String, Object> rebuild() {
+        entryRepo.lockAppends();
+        Map<String, Object> report = driftReport(computeFromRawTables());
+
+        if (entryRepo.appendCorrections() > 0) {
+            dataVersion.bumpAfterCommit();
+            groupRepo.bumpAllDataVersions();
+        }
+
+        linkRepo.deleteAllInBatch();
+        linkRepo.insertLinksFromExpenses();
+        return report;
+    }
+
+    /**
+     * Fold every entry appended since the latest snapshot into a new snapshot and drop all but the
+     * previous one, which readers that already looked up the latest snapshot may still be using.
+     * Appends wait while the snapshot is taken.
+     */
+    @Transactional
+    public Map<String, Object> snapshot() {
+        entryRepo.lockAppends();
+        Optional<LedgerSnapshot> previous = snapshotRepo.findTopByOrderByIdDesc();
+        long previousLastEntryId = previous.map(LedgerSnapshot::getLastEntryId).orElse(0L);
+        long lastEntryId = entryRepo.findLastId();
+        if (lastEntryId == previousLastEntryId) {
+            return Map.of("created", false, "lastEntryId", lastEntryId);
+        }
+
+        LedgerSnapshot snapshot = snapshotRepo.save(new LedgerSnapshot(lastEntryId));
+        snapshotRepo.insertBalances(snapshot.getId(), previous.map(LedgerSnapshot::getId).orElse(0L), previousLastEntryId, lastEntryId);
+        previous.ifPresent(p -> {
+            snapshotRepo.deleteBalancesBefore(p.getId());
+            snapshotRepo.deleteBefore(p.getId());
+        });
+        return Map.of("created", true, "snapshotId", snapshot.getId(), "lastEntryId", lastEntryId);
+    }
+
+    /**
+     * Take a snapshot once enough entries have piled up after the latest one.
+     */
+    @Scheduled(fixedDelayString = "${splitapp.ledger.snapshot-interval:PT1M}", initialDelayString = "${splitapp.ledger.snapshot-interval:PT1M}")
+    @Transactional
+    public void snapshotIfDue() {
+        long since = snapshotRepo.findTopByOrderByIdDesc().map(LedgerSnapshot::getLastEntryId).orElse(0L);
+        if (entryRepo.countAfter(since) >= snapshotEvery) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Seed the ledger and debt graph once for databases that already hold expenses from before they existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        if (expenseRepo.count() == 0) {
+            return;
+        }
+        if (entryRepo.count() == 0) {
+            rebuild();
+        } else if (linkRepo.count() == 0) {
+            linkRepo.insertLinksFromExpenses();
+        }
+    }
+
+    private void append(String kind, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < entries.size(); from += APPEND_CHUNK) {
+            List<Entry> chunk = entries.subList(from, Math.min(from + APPEND_CHUNK, entries.size()));
+            String[] kinds = new String[chunk.size()];
+            Arrays.fill(kinds, kind);
+            entryRepo.append(chunk.stream().map(Entry::expenseId).toArray(Long[]::new),
+                    chunk.stream().map(Entry::revision).toArray(Integer[]::new), kinds,
+                    chunk.stream().map(Entry::groupId).toArray(Long[]::new),
+                    chunk.stream().map(Entry::personId).toArray(Long[]::new),
+                    chunk.stream().map(Entry::amount).toArray(Long[]::new));
+        }
+        dataVersion.bumpAfterCommit();
+
+        // Group rows are locked in ascending id order so concurrent writers cannot deadlock
+        Long[] groupIds = entries.stream().map(Entry::groupId).filter(Objects::nonNull).distinct().sorted().toArray(Long[]::new);
+        if (groupIds.length > 0) {
+            groupRepo.bumpDataVersions(groupIds);
+        }
+    }
+
+    private List<Object[]> currentBalances() {
+        Optional<LedgerSnapshot> snapshot = snapshotRepo.findTopByOrderByIdDesc();
+        return entryRepo.findBalancesSince(snapshot.map(LedgerSnapshot::getId).orElse(0L),
+                snapshot.map(LedgerSnapshot::getLastEntryId).orElse(0L));
+    }
+
+    private List<Object[]> currentGroupBalances(Long groupId) {
+        Optional<LedgerSnapshot> snapshot = snapshotRepo.findTopByOrderByIdDesc();
+        return entryRepo.findGroupBalancesSince(snapshot.map(LedgerSnapshot::getId).orElse(0L),
+                snapshot.map(LedgerSnapshot::getLastEntryId).orElse(0L), groupId);
+    }
+
+    private void recordLinks(List<ExpenseSplit> splits) {
+        // Star-shaped: linking each payer to each participant is enough for connectivity
+        Set<List<Long>> pairs = new TreeSet<>(Comparator.<List<Long>, Long>comparing(p -> p.get(0)).thenComparing(p -> p.get(1)));
+        for (ExpenseSplit split : splits) {
+            long payer = split.getExpense().getPaidBy().getId();
+            long person = split.getPerson().getId();
+            if (payer != person) {
+                pairs.add(List.of(Math.min(payer, person), Math.max(payer, person)));
+            }
+        }
+        if (!pairs.isEmpty()) {
+            linkRepo.insertLinks(pairs.stream().map(p -> p.get(0)).toArray(Long[]::new),
+                    pairs.stream().map(p -> p.get(1)).toArray(Long[]::new));
+        }
+    }
+
+    private static Long find(Map<Long, Long> parent, Long id) {
+        Long root = id;
+        while (parent.containsKey(root)) {
+            root = parent.get(root);
+        }
+        // Path compression
+        while (!id.equals(root)) {
+            Long next = parent.get(id);
+            parent.put(id, root);
+            id = next;
+        }
+        return root;
+    }
+
+    private Map<Long, Long> computeFromRawTables() {
+        Map<Long, Long> balances = new HashMap<>();
+        for (Object[] row : expenseRepo.sumPaidByPerson()) {
+            balances.merge((Long) row[0], Money.toMinor((BigDecimal) row[1]), Long::sum);
+        }
+        for (Object[] row : splitRepo.sumOwedByPerson()) {
+            balances.merge((Long) row[0], -Money.toMinor((BigDecimal) row[1]), Long::sum);
+        }
+        return balances;
+    }
+
+    private Map<String, Object> driftReport(Map<Long, Long> expected) {
+        Map<Long, Long> actual = new HashMap<>();
+        for (Object[] row : currentBalances()) {
+            actual.put((Long) row[0], Money.toMinor((BigDecimal) row[2]));
+        }
+
+        Set<Long> personIds = new TreeSet<>(expected.keySet());
+        personIds.addAll(actual.keySet());
+
+        List<Long> drifting = personIds.stream()
+                .filter(id -> expected.getOrDefault(id, 0L).longValue() != actual.getOrDefault(id, 0L).longValue())
+                .toList();
+        Map<Long, String> names = new HashMap<>();
+        if (!drifting.isEmpty()) { // One query for every drifting person, however out of sync the ledger is
+            personRepo.findAllById(drifting).forEach(p -> names.put(p.getId(), p.getName()));
+        }
+
+        List<Map<String, Object>> drift = new ArrayList<>();
+        for (Long id : drifting) {
+            long exp = expected.getOrDefault(id, 0L);
+            long act = actual.getOrDefault(id, 0L);
+            drift.add(Map.of("name", names.getOrDefault(id, "#" + id), "ledger", Money.toDecimal(act), "expected", Money.toDecimal(exp),
+                    "difference", Money.toDecimal(act - exp)));
+        }
+        return Map.of("consistent", drift.isEmpty(), "peopleChecked", personIds.size(), "drift", drift);
+    }
+
+    /**
+     * One ledger entry waiting to be appended, its amount in minor units.
+     */
+    private record Entry(Long expenseId, int revision, Long groupId, long personId, long amount) {
+    }
+}
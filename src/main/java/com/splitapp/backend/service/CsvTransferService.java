@@ -0,0 +1,260 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.model.LedgerEntry;
+import com.splitapp.backend.repository.ExpenseGroupRepository;
+import io.micrometer.core.annotation.Timed;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk CSV import and export of expenses over the PostgreSQL COPY protocol.
+ * <p>
+ * The CSV has one row per split: {@value #COLUMNS}. Rows sharing an {@code expense_ref} form one expense and must
+ * agree on its columns; {@code created_at} and {@code group_id} may be empty. Export writes the same format,
+ * using the expense id as reference, so an export can be imported elsewhere as is.
+ * <p>
+ * Import streams the CSV into a temporary staging table, validates it, creates missing people by name, and then
+ * merges everything (expenses, splits, ledger entries, debt links) with a handful of set-based statements, so memory
+ * stays constant and nothing goes through the ORM. Ids come from the same pooled sequences Hibernate uses.
+ */
+@Service
+@Timed("splitapp.service")
+public class CsvTransferService {
+
+    static final String COLUMNS = "expense_ref,description,amount,paid_by,created_at,group_id,participant,amount_owed,share_type,share_value";
+
+    private final JdbcTemplate jdbc;
+    private final ExpenseGroupRepository groupRepo;
+    private final DataVersionService dataVersion;
+
+    public CsvTransferService(JdbcTemplate jdbc, ExpenseGroupRepository groupRepo, DataVersionService dataVersion) {
+        this.jdbc = jdbc;
+        this.groupRepo = groupRepo;
+        this.dataVersion = dataVersion;
+    }
+
+    /**
+     * Import every expense in the CSV (header row required) in one transaction. Nothing is imported if any row is invalid.
+     */
+    @Transactional
+    public Map<String, Object> importCsv(InputStream csv) {
+        Map<String, Object> result = jdbc.execute((ConnectionCallback<Map<String, Object>>) con -> {
+            stage(con, csv);
+            long rows = queryLong(con, "SELECT count(*) FROM csv_import_row");
+            if (rows == 0) {
+                return Map.of("expenses", 0L, "splits", 0L, "peopleCreated", 0L);
+            }
+            validate(con);
+
+            int peopleCreated = update(con, "INSERT INTO person (name) " +
+                    "SELECT paid_by FROM csv_import_row UNION SELECT participant FROM csv_import_row " +
+                    "ON CONFLICT (name) DO NOTHING");
+            long expenses = mergeExpenses(con);
+            mergeSplits(con, rows);
+            appendLedgerEntries(con);
+
+            Long[] groupIds = queryLongs(con, "SELECT DISTINCT group_id FROM csv_import_row WHERE group_id IS NOT NULL ORDER BY 1");
+            if (groupIds.length > 0) {
+                groupRepo.bumpDataVersions(groupIds);
+            }
+            return Map.of("expenses", expenses, "splits", rows, "peopleCreated", (long) peopleCreated);
+        });
+        if ((long) result.get("expenses") > 0) {
+            dataVersion.bumpAfterCommit();
+        }
+        return result;
+    }
+
+    /**
+     * Write the live splits of every expense (optionally of one group) as CSV with a header row.
+     * Returns the number of data rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(Long groupId, OutputStream out) {
+        String sql = "COPY (SELECT e.id AS expense_ref, e.description, e.amount, payer.name AS paid_by, e.created_at, e.group_id, " +
+                "p.name AS participant, s.amount_owed, s.share_type, s.share_value FROM expense e " +
+                "JOIN person payer ON payer.id = e.paid_by_id " +
+                "JOIN expense_split s ON s.expense_id = e.id AND s.revision = e.revision " +
+                "JOIN person p ON p.id = s.person_id " +
+                (groupId == null ? "" : "WHERE e.group_id = " + groupId.longValue() + " ") + // COPY takes no bind parameters
+                "ORDER BY e.id, s.id) TO STDOUT WITH (FORMAT csv, HEADER)";
+        return jdbc.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return copyManager(con).copyOut(sql, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void stage(Connection con, InputStream csv) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("CREATE TEMPORARY TABLE csv_import_row (" +
+                    "line bigint GENERATED ALWAYS AS IDENTITY, expense_ref text NOT NULL, description text NOT NULL, " +
+                    "amount numeric NOT NULL, paid_by text NOT NULL, created_at timestamp, group_id bigint, " +
+                    "participant text NOT NULL, amount_owed numeric NOT NULL, share_type text NOT NULL, share_value numeric" +
+                    ") ON COMMIT DROP");
+        }
+        try {
+            copyManager(con).copyIn("COPY csv_import_row (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv, HEADER)", csv);
+        } catch (SQLException e) {
+            throw new IllegalArgumentException("Malformed CSV: " + e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        update(con, "ANALYZE csv_import_row"); // Temporary tables are never auto-analyzed
+    }
+
+    private void validate(Connection con) throws SQLException {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT expense_ref, problem FROM (SELECT expense_ref, CASE " +
+                     "WHEN count(DISTINCT (description, amount, paid_by, created_at, group_id)) > 1 THEN 'rows disagree on the expense columns' " +
+                     "WHEN min(amount) <= 0 THEN 'amount must be positive' " +
+                     "WHEN bool_or(scale(amount) > 2 OR scale(amount_owed) > 2) THEN 'amounts have more than 2 decimal places' " +
+                     "WHEN sum(amount_owed) <> min(amount) THEN 'amount_owed does not add up to the amount' " +
+                     "WHEN bool_or(share_type NOT IN ('EQUAL', 'EXACT', 'PERCENTAGE')) THEN 'invalid share_type' " +
+                     // The share rules ExpenseService.validate applies to API requests
+                     "WHEN count(DISTINCT share_type) > 1 THEN 'rows disagree on share_type' " +
+                     "WHEN min(amount_owed) < 0 THEN 'amount_owed must not be negative' " +
+                     "WHEN min(share_type) <> 'EQUAL' AND bool_or(share_value IS NULL OR share_value < 0) THEN 'share_value must be given and not negative' " +
+                     "WHEN min(share_type) = 'PERCENTAGE' AND sum(round(share_value, 4)) <> 100 THEN 'share_value does not add up to 100' " +
+                     "WHEN min(share_type) = 'EXACT' AND bool_or(round(share_value, 2) <> amount_owed) THEN 'share_value differs from amount_owed' " +
+                     "WHEN bool_or(group_id IS NOT NULL) AND NOT EXISTS (SELECT 1 FROM expense_group g WHERE g.id = min(group_id)) THEN 'group not found' " +
+                     "END AS problem FROM csv_import_row GROUP BY expense_ref) p WHERE problem IS NOT NULL ORDER BY expense_ref LIMIT 1")) {
+            if (rs.next()) {
+                throw new IllegalArgumentException("Expense " + rs.getString(1) + ": " + rs.getString(2));
+            }
+        }
+    }
+
+    private long mergeExpenses(Connection con) throws SQLException {
+        update(con, "CREATE TEMPORARY TABLE csv_import_expense (expense_ref text PRIMARY KEY, id bigint NOT NULL) ON COMMIT DROP");
+        long expenses = queryLong(con, "SELECT count(DISTINCT expense_ref) FROM csv_import_row");
+        IdBlocks ids = reserveIds(con, "expense_seq", expenses);
+        try (PreparedStatement ps = con.prepareStatement("INSERT INTO csv_import_expense (expense_ref, id) " +
+                "SELECT expense_ref, " + ids.idOf("rn") + " FROM (SELECT expense_ref, row_number() OVER (ORDER BY min(line)) - 1 AS rn " +
+                "FROM csv_import_row GROUP BY expense_ref) r")) {
+            ids.bind(ps, 1);
+            ps.executeUpdate();
+        }
+        update(con, "ANALYZE csv_import_expense");
+        update(con, "INSERT INTO expense (id, description, amount, paid_by_id, created_at, group_id, revision) " +
+                "SELECT DISTINCT ON (r.expense_ref) m.id, r.description, r.amount, payer.id, COALESCE(r.created_at, LOCALTIMESTAMP), r.group_id, 1 " +
+                "FROM csv_import_row r JOIN csv_import_expense m ON m.expense_ref = r.expense_ref " +
+                "JOIN person payer ON payer.name = r.paid_by ORDER BY r.expense_ref, r.line");
+        return expenses;
+    }
+
+    private void mergeSplits(Connection con, long rows) throws SQLException {
+        IdBlocks ids = reserveIds(con, "expense_split_seq", rows);
+        try (PreparedStatement ps = con.prepareStatement("INSERT INTO expense_split " +
+                "(id, expense_id, person_id, amount_owed, share_type, share_value, group_id, created_at, revision) " +
+                "SELECT " + ids.idOf("r.rn") + ", m.id, p.id, r.amount_owed, r.share_type, r.share_value, r.group_id, e.created_at, 1 " +
+                "FROM (SELECT *, row_number() OVER (ORDER BY line) - 1 AS rn FROM csv_import_row) r " +
+                "JOIN csv_import_expense m ON m.expense_ref = r.expense_ref JOIN expense e ON e.id = m.id " +
+                "JOIN person p ON p.name = r.participant")) {
+            ids.bind(ps, 1);
+            ps.executeUpdate();
+        }
+    }
+
+    private void appendLedgerEntries(Connection con) throws SQLException {
+        // Same entries BalanceLedgerService.applyExpenses would append: a credit for the payer, a debit per split
+        update(con, "INSERT INTO ledger_entry (expense_id, revision, kind, group_id, person_id, amount, created_at) " +
+                "SELECT e.id, e.revision, '" + LedgerEntry.EXPENSE + "', e.group_id, e.paid_by_id, e.amount, LOCALTIMESTAMP " +
+                "FROM expense e JOIN csv_import_expense m ON m.id = e.id " +
+                "UNION ALL SELECT s.expense_id, s.revision, '" + LedgerEntry.EXPENSE + "', s.group_id, s.person_id, -s.amount_owed, LOCALTIMESTAMP " +
+                "FROM expense_split s JOIN csv_import_expense m ON m.id = s.expense_id");
+        update(con, "INSERT INTO person_link (low_id, high_id) " +
+                "SELECT DISTINCT LEAST(e.paid_by_id, s.person_id), GREATEST(e.paid_by_id, s.person_id) " +
+                "FROM expense_split s JOIN csv_import_expense m ON m.id = s.expense_id JOIN expense e ON e.id = s.expense_id " +
+                "WHERE e.paid_by_id <> s.person_id ON CONFLICT DO NOTHING");
+    }
+
+    /**
+     * Reserve enough ids for {@code count} rows from a pooled sequence, the way Hibernate's pooled optimizer does:
+     * each value V handed out by the sequence covers ids (V - increment, V].
+     */
+    private IdBlocks reserveIds(Connection con, String sequence, long count) throws SQLException {
+        int increment;
+        try (PreparedStatement ps = con.prepareStatement("SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?")) {
+            ps.setString(1, sequence);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Sequence " + sequence + " does not exist");
+                }
+                increment = rs.getInt(1);
+            }
+        }
+
+        List<Long> blocks = new ArrayList<>();
+        try (PreparedStatement ps = con.prepareStatement("SELECT nextval('" + sequence + "') FROM generate_series(1, ?)")) {
+            while (blocks.size() * (long) increment < count) {
+                ps.setLong(1, (count - blocks.size() * (long) increment + increment - 1) / increment);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long hi = rs.getLong(1);
+                        if (hi >= increment) { // A fresh sequence's first value is special-cased by Hibernate; skip it
+                            blocks.add(hi);
+                        }
+                    }
+                }
+            }
+        }
+        return new IdBlocks(con.createArrayOf("bigint", blocks.toArray()), increment);
+    }
+
+    private static CopyManager copyManager(Connection con) throws SQLException {
+        return con.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private static int update(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            return st.executeUpdate(sql);
+        }
+    }
+
+    private static long queryLong(Connection con, String sql) throws SQLException {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static Long[] queryLongs(Connection con, String sql) throws SQLException {
+        List<Long> values = new ArrayList<>();
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getLong(1));
+            }
+        }
+        return values.toArray(Long[]::new);
+    }
+
+    /**
+     * Reserved sequence values; row number n (0-based) gets id {@code blocks[n / increment] - increment + 1 + n % increment}.
+     */
+    private record IdBlocks(Array blocks, int increment) {
+
+        String idOf(String rowNumber) {
+            return "(CAST(? AS bigint[]))[" + rowNumber + " / " + increment + " + 1] - " + (increment - 1) + " + " + rowNumber + " % " + increment;
+        }
+
+        void bind(PreparedStatement ps, int index) throws SQLException {
+            ps.setArray(index, blocks);
+        }
+    }
+}
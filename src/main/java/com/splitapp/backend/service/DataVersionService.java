@@ -0,0 +1,77 @@
+package com.splitapp.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Global data version, bumped once by every transaction that changes balances.
+ * Backed by a PostgreSQL sequence so all nodes agree on it and bumping never takes a row lock.
+ * <p>
+ * The bump runs after commit, so anything computed while a version is current is at least as new
+ * as that version; a response cached under a version can never be older than it. If the process
+ * dies between commit and bump, caches stay stale until the next mutation.
+ */
+@Service
+public class DataVersionService {
+
+    private static final String BUMP_REGISTERED = DataVersionService.class.getName() + ".bumpRegistered";
+
+    private final JdbcTemplate jdbc;
+    private final boolean schemaUpdate;
+
+    public DataVersionService(JdbcTemplate jdbc, @Value("${splitapp.schema.update:true}") boolean schemaUpdate) {
+        this.jdbc = jdbc;
+        this.schemaUpdate = schemaUpdate;
+    }
+
+    @PostConstruct
+    void createSequence() {
+        if (!schemaUpdate) {
+            return;
+        }
+        jdbc.execute("CREATE SEQUENCE IF NOT EXISTS ledger_version_seq");
+    }
+
+    /**
+     * Current data version. A sequence that was never bumped reports its start value as last_value,
+     * the same as after its first nextval(), so that state counts as version 0.
+     */
+    public long current() {
+        Long version = jdbc.queryForObject(
+                "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM ledger_version_seq", Long.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Bump the version once the surrounding transaction commits (immediately if there is none).
+     */
+    public void bumpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(BUMP_REGISTERED)) {
+            return; // One bump per transaction is enough
+        }
+        TransactionSynchronizationManager.bindResource(BUMP_REGISTERED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BUMP_REGISTERED);
+            }
+        });
+    }
+
+    private void bump() {
+        jdbc.queryForObject("SELECT nextval('ledger_version_seq')", Long.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.dto.BatchItemResult;
+import com.splitapp.backend.dto.ExpenseRequest;
+import com.splitapp.backend.model.*;
+import com.splitapp.backend.repository.*;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Bulk ingestion of many expenses.
+ * All items are validated up front, people are resolved once for the whole batch,
+ * and valid expenses are committed in chunks so one bad chunk does not roll back the rest.
+ */
+@Service
+public class ExpenseBatchService {
+
+    private final ExpenseService expenseService;
+    private final ExpenseRepository expenseRepo;
+    private final ExpenseSplitRepository splitRepo;
+    private final BalanceLedgerService ledger;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ExpenseBatchService(ExpenseService expenseService, ExpenseRepository expenseRepo, ExpenseSplitRepository splitRepo,
+                               BalanceLedgerService ledger, EntityManager entityManager, PlatformTransactionManager transactionManager,
+                               @Value("${splitapp.batch.chunk-size:500}") int chunkSize) {
+        this.expenseService = expenseService;
+        this.expenseRepo = expenseRepo;
+        this.splitRepo = splitRepo;
+        this.ledger = ledger;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Store every valid request and return one result per request, in submission order.
+     */
+    public List<BatchItemResult> addExpenses(List<ExpenseRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+
+        // Validate everything before touching the database
+        List<Integer> valid = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ExpenseRequest r = requests.get(i);
+            try {
+                if (r == null) {
+                    throw new IllegalArgumentException("Missing required fields");
+                }
+                expenseService.validate(r.getDescription(), r.getAmount(), r.getPaidBy(), r.getParticipants(), r.getSplitType(), r.getShareValues());
+                valid.add(i);
+                names.add(r.getPaidBy());
+                names.addAll(r.getParticipants());
+            } catch (IllegalArgumentException e) {
+                results[i] = BatchItemResult.failed(i, e.getMessage());
+            }
+        }
+
+        // Resolve every person referenced by the batch once
+        Map<String, Person> people = names.isEmpty() ? Map.of()
+                : transactionTemplate.execute(status -> expenseService.resolvePeople(names));
+
+        // Commit valid expenses chunk by chunk
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                List<Expense> saved = transactionTemplate.execute(status -> saveChunk(requests, chunk, people));
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunk.get(j)] = BatchItemResult.created(chunk.get(j), saved.get(j).getId());
+                }
+            } catch (RuntimeException e) {
+                for (int index : chunk) {
+                    results[index] = BatchItemResult.failed(index, "Chunk rolled back: " + e.getMessage());
+                }
+            } finally {
+                // Keep the persistence context from growing across chunks
+                entityManager.clear();
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private List<Expense> saveChunk(List<ExpenseRequest> requests, List<Integer> chunk, Map<String, Person> people) {
+        List<Expense> expenses = new ArrayList<>(chunk.size());
+        List<ExpenseSplit> splits = new ArrayList<>();
+        for (int index : chunk) {
+            ExpenseRequest r = requests.get(index);
+            Expense expense = new Expense(r.getDescription(), r.getAmount(), people.get(r.getPaidBy()));
+            expenses.add(expense);
+            splits.addAll(expenseService.buildSplits(expense, people, r.getParticipants(), r.getSplitType(), r.getShareValues()));
+        }
+
+        expenseRepo.saveAll(expenses);
+        splitRepo.saveAll(splits);
+        ledger.applyExpenses(expenses, splits);
+        return expenses;
+    }
+}
@@ -0,0 +1,185 @@
+package com.splitapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitapp.backend.dto.BatchItemResult;
+import com.splitapp.backend.dto.ExpenseRequest;
+import com.splitapp.backend.dto.IngestStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion for {@code POST /expenses/async} (enabled by {@code splitapp.ingest.enabled}).
+ * <p>
+ * Requests are validated on submit and put on a bounded in-memory queue; a full queue rejects the submit.
+ * One writer thread drains everything queued so far and stores it through {@link ExpenseBatchService}, so under
+ * load many expenses share one commit. Each submission gets an id whose state can be polled until it expires.
+ * <p>
+ * On shutdown, after the web server has stopped taking requests, the writer drains the queue before the
+ * database goes away (bounded by {@code splitapp.ingest.drain-timeout}). Accepted expenses that are still
+ * queued are lost if the process dies without a clean shutdown, or if draining takes longer than the timeout.
+ */
+@Service
+@ConditionalOnProperty(name = "splitapp.ingest.enabled", havingValue = "true")
+public class ExpenseIngestService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseIngestService.class);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final ExpenseService expenseService;
+    private final ExpenseBatchService batchService;
+    private final BlockingQueue<Pending> queue;
+    private final int maxGroupSize;
+    private final Duration drainTimeout;
+    private final Cache<String, IngestStatus> statuses;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ExpenseIngestService(ExpenseService expenseService, ExpenseBatchService batchService, MeterRegistry meterRegistry,
+                                @Value("${splitapp.ingest.queue-capacity:10000}") int queueCapacity,
+                                @Value("${splitapp.ingest.max-group-size:1000}") int maxGroupSize,
+                                @Value("${splitapp.ingest.drain-timeout:PT30S}") Duration drainTimeout,
+                                @Value("${splitapp.ingest.status-ttl:PT1H}") Duration statusTtl) {
+        this.expenseService = expenseService;
+        this.batchService = batchService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxGroupSize = maxGroupSize;
+        this.drainTimeout = drainTimeout;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(100_000, queueCapacity * 10L)) // Queued entries must never be evicted
+                .expireAfterWrite(statusTtl)
+                .build();
+        meterRegistry.gauge("splitapp.ingest.queue.size", queue, BlockingQueue::size);
+    }
+
+    /**
+     * Validate the request and queue it; returns its id.
+     * @throws IllegalArgumentException if the request is invalid
+     * @throws RejectedExecutionException if the queue is full
+     * @throws IllegalStateException if the service is shutting down
+     */
+    public String submit(ExpenseRequest request) {
+        expenseService.validate(request.getDescription(), request.getAmount(), request.getPaidBy(),
+                request.getParticipants(), request.getSplitType(), request.getShareValues());
+        if (!accepting) {
+            throw new IllegalStateException("Ingestion is shutting down");
+        }
+        String id = UUID.randomUUID().toString();
+        statuses.put(id, IngestStatus.queued(id));
+        if (!queue.offer(new Pending(id, request))) {
+            statuses.invalidate(id);
+            throw new RejectedExecutionException("Ingestion queue is full");
+        }
+        return id;
+    }
+
+    /**
+     * Current state of a submission.
+     */
+    public IngestStatus getStatus(String id) {
+        IngestStatus status = statuses.getIfPresent(id);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown or expired ingestion id");
+        }
+        return status;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        accepting = true;
+        writer = new Thread(this::drainLoop, "splitapp-ingest-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false; // The writer keeps going until the queue is empty
+        try {
+            writer.join(drainTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.error("Ingestion queue not drained within {}; {} accepted expenses were not stored", drainTimeout, queue.size());
+            writer.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null && writer.isAlive();
+    }
+
+    /**
+     * Stop after the web server (so nothing is submitted while draining) and start before it.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            List<Pending> group = new ArrayList<>();
+            try {
+                Pending first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(group, maxGroupSize - 1); // Everything that arrived while the previous group was committing
+            write(group);
+        }
+    }
+
+    private void write(List<Pending> group) {
+        try {
+            List<BatchItemResult> results = batchService.addExpenses(group.stream().map(Pending::request).toList());
+            for (int i = 0; i < group.size(); i++) {
+                BatchItemResult result = results.get(i);
+                if (!result.isSuccess() && group.size() > 1) {
+                    // A failed item rolls back its whole chunk; retry alone so one bad item cannot fail the others
+                    result = batchService.addExpenses(List.of(group.get(i).request())).get(0);
+                }
+                record(group.get(i), result);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to store {} queued expenses", group.size(), e);
+            for (Pending pending : group) {
+                statuses.put(pending.id(), IngestStatus.failed(pending.id(), "Internal server error"));
+            }
+        }
+    }
+
+    private void record(Pending pending, BatchItemResult result) {
+        statuses.put(pending.id(), result.isSuccess()
+                ? IngestStatus.created(pending.id(), result.getId())
+                : IngestStatus.failed(pending.id(), result.getMessage()));
+    }
+
+    private record Pending(String id, ExpenseRequest request) {
+    }
+}
@@ -1,211 +1,390 @@
 package com.splitapp.backend.service;
 
+import com.splitapp.backend.dto.CompactExpensePage;
+import com.splitapp.backend.dto.ExpenseCursor;
 import com.splitapp.backend.model.*;
 import com.splitapp.backend.repository.*;
+import com.splitapp.backend.service.money.Money;
+import com.splitapp.backend.service.money.SplitCalculator;
+import com.splitapp.backend.service.settlement.SettlementEngine;
+import com.splitapp.backend.service.settlement.SettlementReport;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import java.util.Map.Entry;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service layer for managing expense logic and business rules.
+ * Every public method is timed as {@code splitapp.service} (tagged with the method name).
  */
 @Service
+@Timed("splitapp.service")
 public class ExpenseService {
 
+    private static final int NAME_LOOKUP_CHUNK = 1000; // Bounds the number of bind parameters per IN query
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final PersonRepository personRepo;
     private final ExpenseRepository expenseRepo;
     private final ExpenseSplitRepository splitRepo;
-
-    public ExpenseService(PersonRepository personRepo, ExpenseRepository expenseRepo, ExpenseSplitRepository splitRepo) {
+    private final BalanceLedgerService ledger;
+    private final PersonCache personCache;
+    private final EntityManager entityManager;
+    private final SettlementEngine settlementEngine;
+    private final DataVersionService dataVersion;
+    private final VersionedResponseCache responseCache;
+
+    public ExpenseService(PersonRepository personRepo, ExpenseRepository expenseRepo, ExpenseSplitRepository splitRepo,
+                          BalanceLedgerService ledger, PersonCache personCache, EntityManager entityManager,
+                          SettlementEngine settlementEngine, DataVersionService dataVersion,
+                          VersionedResponseCache responseCache) {
         this.personRepo = personRepo;
         this.expenseRepo = expenseRepo;
         this.splitRepo = splitRepo;
+        this.ledger = ledger;
+        this.personCache = personCache;
+        this.entityManager = entityManager;
+        this.settlementEngine = settlementEngine;
+        this.dataVersion = dataVersion;
+        this.responseCache = responseCache;
     }
 
     /**
      * Add a new expense and calculate how it should be split among participants.
      */
+    @Transactional
     public Expense addExpense(String description, BigDecimal amount, String paidByName, List<String> participants, String splitType, List<BigDecimal> shareValues) {
-        // Validate input
-        if (description == null || amount == null || paidByName == null || participants == null || participants.isEmpty()) {
-            throw new IllegalArgumentException("Missing required fields");
-        }
-        if (!List.of("EQUAL", "EXACT", "PERCENTAGE").contains(splitType)) {
-            throw new IllegalArgumentException("Invalid splitType");
-        }
-        if (!"EQUAL".equals(splitType) && (shareValues == null || shareValues.size() != participants.size())) {
-            throw new IllegalArgumentException("shareValues size mismatch with participants");
-        }
+        return addExpense(null, description, amount, paidByName, participants, splitType, shareValues);
+    }
+
+    /**
+     * Add a new expense to the given group (null for none). The caller checks that the group exists.
+     */
+    @Transactional
+    public Expense addExpense(Long groupId, String description, BigDecimal amount, String paidByName, List<String> participants, String splitType, List<BigDecimal> shareValues) {
+        validate(description, amount, paidByName, participants, splitType, shareValues);
 
-        // Ensure payer exists
-        Person paidBy = personRepo.findByName(paidByName).orElseGet(() -> personRepo.save(new Person(paidByName)));
+        // Resolve payer and participants in one round trip, creating missing people in bulk
+        Map<String, Person> people = resolvePeople(namesOf(paidByName, participants));
+        Person paidBy = people.get(paidByName);
 
         // Create expense entry
-        Expense expense = expenseRepo.save(new Expense(description, amount, paidBy));
-
-        // Create splits for each participant
-        for (int i = 0; i < participants.size(); i++) {
-            int finalI = i;
-            Person p = personRepo.findByName(participants.get(i)).orElseGet(() -> personRepo.save(new Person(participants.get(finalI))));
-            BigDecimal shareVal = null;
-            BigDecimal owedAmount;
-
-            switch (splitType) {
-                case "EXACT":
-                    shareVal = shareValues.get(i);
-                    owedAmount = shareVal;
-                    break;
-                case "PERCENTAGE":
-                    shareVal = shareValues.get(i);
-                    owedAmount = amount.multiply(shareVal).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                    break;
-                default:
-                    owedAmount = amount.divide(BigDecimal.valueOf(participants.size()), 2, RoundingMode.HALF_UP);
-            }
+        Expense newExpense = new Expense(description, amount, paidBy);
+        newExpense.setGroupId(groupId);
+        Expense expense = expenseRepo.save(newExpense);
 
-            ExpenseSplit split = new ExpenseSplit(expense, p, owedAmount, splitType, shareVal);
-            splitRepo.save(split);
-        }
+        // Create splits for each participant, inserted as one JDBC batch
+        List<ExpenseSplit> splits = splitRepo.saveAll(buildSplits(expense, people, participants, splitType, shareValues));
 
+        ledger.applyExpense(expense, splits);
         return expense;
     }
 
     /**
-     * Fetch all recorded expenses.
+     * Fetch one page of expenses in (createdAt, id) order, continuing after the given cursor.
+     * Returns the items and the cursor of the next page (null on the last page).
      */
-    public List<Expense> getAllExpenses() {
-        return expenseRepo.findAll();
+    @Transactional(readOnly = true)
+    public Map<String, Object> getExpensesPage(String payer, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        return getExpensesPage(null, payer, from, to, cursor, limit);
     }
 
     /**
-     * Get all people involved in expenses.
+     * Same as {@link #getExpensesPage(String, LocalDateTime, LocalDateTime, String, int)}, restricted to one group (null for all).
      */
-    public List<Person> getAllPeople() {
-        return personRepo.findAll();
+    @Transactional(readOnly = true)
+    public Map<String, Object> getExpensesPage(Long groupId, String payer, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        ExpensePage page = findPage(groupId, payer, from, to, cursor, limit);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", page.items());
+        result.put("nextCursor", page.nextCursor());
+        return result;
     }
 
     /**
-     * Calculate current balance for each person (owed vs paid).
+     * Same page as {@link #getExpensesPage(String, LocalDateTime, LocalDateTime, String, int)}, in the flat form
+     * (payers by id plus one dictionary of their names).
      */
-    public List<Map<String, Object>> getBalances() {
-        Map<String, BigDecimal> balances = new HashMap<>();
+    @Transactional(readOnly = true)
+    public CompactExpensePage getCompactExpensesPage(String payer, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        ExpensePage page = findPage(null, payer, from, to, cursor, limit);
+        return CompactExpensePage.of(page.items(), page.nextCursor());
+    }
 
-        // Subtract what each person owes
-        for (ExpenseSplit split : splitRepo.findAll()) {
-            balances.put(split.getPerson().getName(),
-                    balances.getOrDefault(split.getPerson().getName(), BigDecimal.ZERO)
-                            .subtract(split.getAmountOwed()));
+    private ExpensePage findPage(Long groupId, String payer, LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-
-        // Add what each person paid
-        for (Expense e : expenseRepo.findAll()) {
-            balances.put(e.getPaidBy().getName(),
-                    balances.getOrDefault(e.getPaidBy().getName(), BigDecimal.ZERO)
-                            .add(e.getAmount()));
+        ExpenseCursor after = cursor == null ? null : ExpenseCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists
+        List<Expense> items = expenseRepo.findPage(groupId, payer, from, to,
+                after == null ? null : after.getCreatedAt(), after == null ? null : after.getId(), limit + 1);
+        String next = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            next = ExpenseCursor.after(items.get(limit - 1)).encode();
         }
+        return new ExpensePage(items, next);
+    }
 
-        // Format result
-        List<Map<String, Object>> result = new ArrayList<>();
-        balances.forEach((name, balance) -> result.add(Map.of("name", name, "netBalance", balance)));
-        return result;
+    private record ExpensePage(List<Expense> items, String nextCursor) {
     }
 
     /**
-     * Calculate simplified settlement: who pays whom and how much.
+     * Get one expense by id.
      */
-    public List<Map<String, Object>> getSettlements() {
-        Map<String, BigDecimal> balances = new HashMap<>();
-        for (Map<String, Object> bal : getBalances()) {
-            balances.put((String) bal.get("name"), (BigDecimal) bal.get("netBalance"));
-        }
+    @Transactional(readOnly = true)
+    public Expense getExpense(Long id) {
+        return expenseRepo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+    }
 
-        // Separate debtors and creditors
+    /**
+     * Get the live splits of many expenses with a single query, keyed by expense id.
+     * Expenses without splits are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<ExpenseSplit>> getSplits(Collection<Long> expenseIds) {
+        Map<Long, List<ExpenseSplit>> result = new HashMap<>();
+        if (expenseIds.isEmpty()) {
+            return result;
+        }
+        for (ExpenseSplit split : splitRepo.findCurrentByExpenseIds(expenseIds)) {
+            result.computeIfAbsent(split.getExpense().getId(), k -> new ArrayList<>()).add(split);
+        }
+        return result;
+    }
 
-        PriorityQueue<Map.Entry<String, BigDecimal>> debtors = new PriorityQueue<>(Map.Entry.comparingByValue());
+    /**
+     * Hand every matching expense to the sink, reading from a database cursor.
+     * The persistence context is cleared periodically so memory stays flat regardless of row count.
+     */
+    @Transactional(readOnly = true)
+    public void streamExpenses(String payer, LocalDateTime from, LocalDateTime to, Consumer<Expense> sink) {
+        try (Stream<Expense> expenses = expenseRepo.streamAll(payer, from, to)) {
+            int[] count = {0};
+            expenses.forEach(e -> {
+                sink.accept(e);
+                if (++count[0] % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
 
-        PriorityQueue<Map.Entry<String, BigDecimal>> creditors =
-                new PriorityQueue<>((a, b) -> b.getValue().compareTo(a.getValue())); // positive balances
+    /**
+     * Get all people involved in expenses.
+     */
+    @Transactional(readOnly = true)
+    public List<Person> getAllPeople() {
+        return personRepo.findAll();
+    }
 
-        for (var entry : balances.entrySet()) {
-            if (entry.getValue().compareTo(BigDecimal.ZERO) < 0) debtors.add(entry);
-            else if (entry.getValue().compareTo(BigDecimal.ZERO) > 0) creditors.add(entry);
-        }
+    /**
+     * Current data version; changes after every committed expense mutation.
+     * Anything returned by the read methods below is at least as new as a version read before calling them.
+     */
+    public long getDataVersion() {
+        return dataVersion.current();
+    }
 
-        // Match debtors to creditors
-        List<Map<String, Object>> settlements = new ArrayList<>();
-        while (!debtors.isEmpty() && !creditors.isEmpty()) {
-            var debtor = debtors.poll();
-            var creditor = creditors.poll();
-            BigDecimal amt = debtor.getValue().abs().min(creditor.getValue());
+    /**
+     * Get the current balance for each person (owed vs paid) from the balance ledger.
+     * Cached until the next data version.
+     */
+    public List<Map<String, Object>> getBalances() {
+        return responseCache.get("balances", dataVersion.current(), ledger::getBalances);
+    }
 
-            settlements.add(Map.of("from", debtor.getKey(), "to", creditor.getKey(), "amount", amt));
+    /**
+     * Compare the balance ledger against the raw expense tables and report any drift.
+     */
+    public Map<String, Object> verifyBalances() {
+        return ledger.verify();
+    }
 
-            BigDecimal dBal = debtor.getValue().add(amt);
-            BigDecimal cBal = creditor.getValue().subtract(amt);
+    /**
+     * Recompute the balance ledger from the raw expense tables.
+     */
+    public Map<String, Object> rebuildBalances() {
+        return ledger.rebuild();
+    }
 
-            if (dBal.compareTo(BigDecimal.ZERO) < 0) debtors.add(Map.entry(debtor.getKey(), dBal));
-            if (cBal.compareTo(BigDecimal.ZERO) > 0) creditors.add(Map.entry(creditor.getKey(), cBal));
-        }
+    /**
+     * Take a ledger snapshot now rather than waiting for the periodic one.
+     */
+    public Map<String, Object> snapshotBalances() {
+        return ledger.snapshot();
+    }
 
-        return settlements;
+    /**
+     * Calculate simplified settlement: who pays whom and how much, using the named strategy.
+     * Cached until the next data version.
+     */
+    public SettlementReport getSettlements(String strategy) {
+        // Each connected component of the debt graph is settled independently (and in parallel)
+        return responseCache.get("settlements:" + strategy, dataVersion.current(),
+                () -> settlementEngine.settle(strategy, ledger.getBalanceComponents()));
     }
 
     /**
-     * Update an existing expense and reassign the splits.
+     * Update an existing expense as a new revision: its old ledger entries are reversed and the new
+     * splits are appended, while earlier revisions' splits stay behind as history.
      */
     @Transactional
     public Expense updateExpense(Long id, String description, BigDecimal amount, String paidByName, List<String> participants, String splitType, List<BigDecimal> shareValues) {
+        return updateExpense(id, null, description, amount, paidByName, participants, splitType, shareValues);
+    }
+
+    /**
+     * Same as {@link #updateExpense(Long, String, BigDecimal, String, List, String, List)}, failing with
+     * {@link ObjectOptimisticLockingFailureException} if the expense is no longer at {@code expectedVersion} (null: any).
+     * A concurrent edit that commits first fails this one the same way, at flush, so edits never overwrite each other.
+     */
+    @Transactional
+    public Expense updateExpense(Long id, Long expectedVersion, String description, BigDecimal amount, String paidByName,
+                                 List<String> participants, String splitType, List<BigDecimal> shareValues) {
+        validate(description, amount, paidByName, participants, splitType, shareValues);
         Expense existing = expenseRepo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Expense.class, id);
+        }
 
-        // Remove old splits
-        splitRepo.deleteAllByExpenseId(id);
+        // Reverse the old contribution to the ledger
+        ledger.revertExpense(existing);
 
         // Update core expense data
-        Person paidBy = personRepo.findByName(paidByName)
-                .orElseGet(() -> personRepo.save(new Person(paidByName)));
+        Map<String, Person> people = resolvePeople(namesOf(paidByName, participants));
+        Person paidBy = people.get(paidByName);
         existing.setDescription(description);
         existing.setAmount(amount);
         existing.setPaidBy(paidBy);
+        existing.setRevision(existing.getRevision() + 1);
         expenseRepo.save(existing);
 
-        // Recreate splits
-        for (int i = 0; i < participants.size(); i++) {
-            int finalI = i;
-            Person p = personRepo.findByName(participants.get(i)).orElseGet(() -> personRepo.save(new Person(participants.get(finalI))));
-            BigDecimal shareVal = null;
-            BigDecimal owedAmount;
-
-            switch (splitType) {
-                case "EXACT":
-                    shareVal = shareValues.get(i);
-                    owedAmount = shareVal;
-                    break;
-                case "PERCENTAGE":
-                    shareVal = shareValues.get(i);
-                    owedAmount = amount.multiply(shareVal).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-                    break;
-                default:
-                    owedAmount = amount.divide(BigDecimal.valueOf(participants.size()), 2, RoundingMode.HALF_UP);
-            }
-
-            ExpenseSplit split = new ExpenseSplit(existing, p, owedAmount, splitType, shareVal);
-            splitRepo.save(split);
-        }
+        // Append the splits of the new revision
+        List<ExpenseSplit> splits = splitRepo.saveAll(buildSplits(existing, people, participants, splitType, shareValues));
 
+        ledger.applyExpense(existing, splits);
         return existing;
     }
 
     /**
-     * Delete an expense and its associated splits.
+     * Delete an expense and its associated splits. Its ledger entries, including the reversal, are kept.
+     * Fails with {@link ObjectOptimisticLockingFailureException} if the expense is edited concurrently.
      */
     @Transactional
     public void deleteExpense(Long id) {
-        splitRepo.deleteAllByExpenseId(id);
-        expenseRepo.deleteById(id);
+        expenseRepo.findById(id).ifPresent(existing -> {
+            ledger.revertExpense(existing);
+            splitRepo.deleteAllByExpenseId(id);
+            expenseRepo.delete(existing);
+        });
+    }
+
+    /**
+     * Get the audit history of an expense: every ledger entry it produced, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getExpenseHistory(Long id) {
+        List<Map<String, Object>> history = ledger.getHistory(id);
+        if (history.isEmpty()) {
+            throw new IllegalArgumentException("Expense not found");
+        }
+        return history;
+    }
+
+    /**
+     * Validate the fields of an add request, throwing IllegalArgumentException on the first problem.
+     */
+    void validate(String description, BigDecimal amount, String paidByName, List<String> participants, String splitType, List<BigDecimal> shareValues) {
+        if (description == null || amount == null || paidByName == null || participants == null || participants.isEmpty()) {
+            throw new IllegalArgumentException("Missing required fields");
+        }
+        if (!List.of("EQUAL", "EXACT", "PERCENTAGE").contains(splitType)) {
+            throw new IllegalArgumentException("Invalid splitType");
+        }
+        if ("EQUAL".equals(splitType)) {
+            return;
+        }
+        if (shareValues == null || shareValues.size() != participants.size()) {
+            throw new IllegalArgumentException("shareValues size mismatch with participants");
+        }
+        if (shareValues.stream().anyMatch(v -> v == null || v.signum() < 0)) {
+            throw new IllegalArgumentException("shareValues must not be negative");
+        }
+        // Compared the way buildSplits rounds them: percentages at four decimals, amounts in minor units
+        if ("PERCENTAGE".equals(splitType)
+                && shareValues.stream().mapToLong(Money::toPercentUnits).sum() != Money.toPercentUnits(BigDecimal.valueOf(100))) {
+            throw new IllegalArgumentException("PERCENTAGE shareValues must add up to 100");
+        }
+        if ("EXACT".equals(splitType) && shareValues.stream().mapToLong(Money::toMinor).sum() != Money.toMinor(amount)) {
+            throw new IllegalArgumentException("EXACT shareValues must add up to the amount");
+        }
+    }
+
+    /**
+     * Resolve all the given names, serving known ones from the person cache.
+     * Cache misses are looked up with IN queries; names that do not exist yet are
+     * inserted with one bulk upsert and read back.
+     */
+    Map<String, Person> resolvePeople(Collection<String> names) {
+        Set<String> distinct = new LinkedHashSet<>(names);
+        Map<String, Person> people = personCache.getAll(distinct);
+        if (people.size() == distinct.size()) {
+            return people;
+        }
+
+        List<String> uncached = distinct.stream().filter(n -> !people.containsKey(n)).toList();
+        List<Person> loaded = new ArrayList<>();
+        for (int from = 0; from < uncached.size(); from += NAME_LOOKUP_CHUNK) {
+            loaded.addAll(personRepo.findByNameIn(uncached.subList(from, Math.min(from + NAME_LOOKUP_CHUNK, uncached.size()))));
+        }
+        loaded.forEach(p -> people.put(p.getName(), p));
+
+        List<String> missing = uncached.stream().filter(n -> !people.containsKey(n)).toList();
+        for (int from = 0; from < missing.size(); from += NAME_LOOKUP_CHUNK) {
+            List<String> chunk = missing.subList(from, Math.min(from + NAME_LOOKUP_CHUNK, missing.size()));
+            personRepo.insertMissing(chunk.toArray(String[]::new));
+            for (Person p : personRepo.findByNameIn(chunk)) {
+                people.put(p.getName(), p);
+                loaded.add(p);
+            }
+        }
+
+        personCache.putAll(loaded);
+        return people;
+    }
+
+    private static Set<String> namesOf(String paidByName, List<String> participants) {
+        Set<String> names = new LinkedHashSet<>(participants);
+        names.add(paidByName);
+        return names;
+    }
+
+    /**
+     * Calculate the amount owed by each participant according to the split type.
+     */
+    List<ExpenseSplit> buildSplits(Expense expense, Map<String, Person> people, List<String> participants,
+                                           String splitType, List<BigDecimal> shareValues) {
+        // All arithmetic happens in minor units; BigDecimal is only created for the stored column
+        BigDecimal[] owed = SplitCalculator.owedAmounts(splitType, Money.toMinor(expense.getAmount()), shareValues, participants.size());
+
+        List<ExpenseSplit> splits = new ArrayList<>(participants.size());
+        for (int i = 0; i < participants.size(); i++) {
+            BigDecimal shareVal = "EQUAL".equals(splitType) ? null : shareValues.get(i);
+            splits.add(new ExpenseSplit(expense, people.get(participants.get(i)), owed[i], splitType, shareVal));
+        }
+        return splits;
     }
 }
@@ -0,0 +1,98 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.model.Expense;
+import com.splitapp.backend.model.ExpenseGroup;
+import com.splitapp.backend.repository.ExpenseGroupRepository;
+import com.splitapp.backend.service.settlement.SettlementEngine;
+import com.splitapp.backend.service.settlement.SettlementReport;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service layer for expense groups. Every read is scoped to a single group's rows.
+ */
+@Service
+public class GroupService {
+
+    private final ExpenseGroupRepository groupRepo;
+    private final ExpenseService expenseService;
+    private final BalanceLedgerService ledger;
+    private final SettlementEngine settlementEngine;
+    private final VersionedResponseCache responseCache;
+
+    public GroupService(ExpenseGroupRepository groupRepo, ExpenseService expenseService, BalanceLedgerService ledger,
+                        SettlementEngine settlementEngine, VersionedResponseCache responseCache) {
+        this.groupRepo = groupRepo;
+        this.expenseService = expenseService;
+        this.ledger = ledger;
+        this.settlementEngine = settlementEngine;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Create a new, empty group.
+     */
+    @Transactional
+    public ExpenseGroup createGroup(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Missing required fields");
+        }
+        return groupRepo.save(new ExpenseGroup(name));
+    }
+
+    /**
+     * Get a group by id.
+     */
+    public ExpenseGroup getGroup(Long groupId) {
+        return groupRepo.findById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
+    }
+
+    /**
+     * Current data version of a group; changes in the same transaction as any change to its balances,
+     * so anything read after it is at least as new.
+     */
+    public long getDataVersion(Long groupId) {
+        return groupRepo.findDataVersion(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
+    }
+
+    /**
+     * Add a new expense to a group.
+     */
+    public Expense addExpense(Long groupId, String description, BigDecimal amount, String paidByName,
+                              List<String> participants, String splitType, List<BigDecimal> shareValues) {
+        getDataVersion(groupId); // Existence check
+        return expenseService.addExpense(groupId, description, amount, paidByName, participants, splitType, shareValues);
+    }
+
+    /**
+     * Fetch one page of a group's expenses in (createdAt, id) order.
+     */
+    public Map<String, Object> getExpensesPage(Long groupId, String payer, LocalDateTime from, LocalDateTime to,
+                                               String cursor, int limit) {
+        getDataVersion(groupId); // Existence check
+        return expenseService.getExpensesPage(groupId, payer, from, to, cursor, limit);
+    }
+
+    /**
+     * Get the balance of every person in a group. Cached until the group's next data version.
+     */
+    public List<Map<String, Object>> getBalances(Long groupId) {
+        return responseCache.get("group-balances:" + groupId, getDataVersion(groupId),
+                () -> ledger.getGroupBalances(groupId));
+    }
+
+    /**
+     * Calculate the settlement of a group with the named strategy. Cached until the group's next data version.
+     */
+    public SettlementReport getSettlements(Long groupId, String strategy) {
+        return responseCache.get("group-settlements:" + groupId + ":" + strategy, getDataVersion(groupId),
+                () -> settlementEngine.settle(strategy, ledger.getGroupBalancesMinor(groupId)));
+    }
+}
@@ -0,0 +1,152 @@
+package com.splitapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitapp.backend.dto.IdempotentResponse;
+import com.splitapp.backend.model.IdempotencyRecord;
+import com.splitapp.backend.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per Idempotency-Key and replays its response to retries.
+ * <p>
+ * Successful responses are kept in the {@code idempotency_key} table, written in the same transaction as the
+ * write itself, and in a bounded in-memory cache in front of it; both expire after the TTL. A retry that hits
+ * the cache never reaches the database. Requests with the same key that arrive while the first one runs wait
+ * for its result: on this node through a shared future, across nodes on the table's primary key.
+ * Failed responses are not kept, so a corrected retry with the same key runs again.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepo;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+    private final Cache<String, Stored> responses;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepo, PlatformTransactionManager transactionManager,
+                              @Value("${splitapp.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${splitapp.idempotency.cache-size:10000}") long cacheSize) {
+        this.recordRepo = recordRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Run the action once for this key and request, or return the response of the run that already happened.
+     * The action runs in a transaction that also stores its response, so it must not commit on its own.
+     * @param requestHash fingerprint of the request; reusing a key for a different request is rejected
+     */
+    public IdempotentResponse execute(String key, String requestHash, Supplier<IdempotentResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        Stored cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running, requestHash); // Coalesced with the request already running on this node
+        }
+        try {
+            IdempotentResponse response = tx.execute(status -> {
+                IdempotentResponse result = runOnce(key, requestHash, action);
+                if (!result.isSuccessful() && !result.replayed()) {
+                    status.setRollbackOnly(); // Release the key along with whatever the failed action did
+                }
+                return result;
+            });
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Delete stored responses older than the TTL.
+     */
+    @Scheduled(fixedDelayString = "${splitapp.idempotency.purge-interval:PT1H}", initialDelayString = "${splitapp.idempotency.purge-interval:PT1H}")
+    @Transactional
+    public int purgeExpired() {
+        return recordRepo.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private IdempotentResponse runOnce(String key, String requestHash, Supplier<IdempotentResponse> action) {
+        if (recordRepo.claim(key, requestHash, LocalDateTime.now()) == 0) {
+            // Taken by a committed request, possibly one that another node just finished
+            IdempotencyRecord record = recordRepo.findById(key).orElseThrow();
+            Stored stored = new Stored(record.getRequestHash(), new IdempotentResponse(record.getStatusCode(), record.getResponseBody(), true));
+            responses.put(key, stored);
+            return replay(stored, requestHash);
+        }
+
+        IdempotentResponse response = action.get();
+        if (response.isSuccessful()) {
+            IdempotencyRecord record = recordRepo.findById(key).orElseThrow();
+            record.complete(response.status(), response.body());
+            Stored stored = new Stored(requestHash, response.asReplay());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    responses.put(key, stored); // Never cache a response whose write did not commit
+                }
+            });
+        }
+        return response;
+    }
+
+    private static IdempotentResponse replay(Stored stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+        }
+        return stored.response();
+    }
+
+    private static IdempotentResponse await(InFlight running, String requestHash) {
+        if (!running.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+        }
+        IdempotentResponse response;
+        try {
+            response = running.result().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException r ? r : e;
+        }
+        return response.isSuccessful() ? response.asReplay() : response;
+    }
+
+    private record Stored(String requestHash, IdempotentResponse response) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<IdempotentResponse> result) {
+    }
+}
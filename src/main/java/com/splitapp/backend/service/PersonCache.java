@@ -0,0 +1,85 @@
+package com.splitapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitapp.backend.model.Person;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Bounded name -> person id cache in front of PersonRepository (W-TinyLFU eviction).
+ * Entries learned inside a transaction only become visible after it commits,
+ * so a rolled-back insert can never leave a dangling id behind.
+ * Hits, misses, evictions and size are published as the {@code cache.*} meters tagged {@code cache=person-ids}.
+ */
+@Component
+public class PersonCache {
+
+    private final Cache<String, Long> ids;
+
+    public PersonCache(@Value("${splitapp.person-cache.max-size:10000}") long maxSize, MeterRegistry meterRegistry) {
+        this.ids = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build(), "person-ids");
+    }
+
+    /**
+     * Return a lightweight Person for every cached name; names that are not cached are left out.
+     */
+    public Map<String, Person> getAll(Collection<String> names) {
+        Map<String, Person> people = new HashMap<>();
+        for (Map.Entry<String, Long> e : ids.getAllPresent(names).entrySet()) {
+            Person p = new Person(e.getKey());
+            p.setId(e.getValue());
+            people.put(e.getKey(), p);
+        }
+        return people;
+    }
+
+    /**
+     * Remember the ids of the given people (deferred until commit when a transaction is active).
+     */
+    public void putAll(Collection<Person> people) {
+        Map<String, Long> entries = new HashMap<>();
+        for (Person p : people) {
+            entries.put(p.getName(), p.getId());
+        }
+        afterCommit(() -> ids.putAll(entries));
+    }
+
+    /**
+     * Drop every entry pointing at the given person id (after a rename or delete).
+     * Removed immediately and again after commit, in case a concurrent reader re-cached the old name meanwhile.
+     */
+    public void invalidate(Long personId) {
+        ids.asMap().values().removeIf(personId::equals);
+        afterCommit(() -> ids.asMap().values().removeIf(personId::equals));
+    }
+
+    /**
+     * Drop all entries.
+     */
+    public void invalidateAll() {
+        ids.invalidateAll();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
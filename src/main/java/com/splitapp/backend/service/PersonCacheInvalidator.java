@@ -0,0 +1,26 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.model.Person;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that keeps PersonCache correct when a person is renamed or deleted through the ORM.
+ * Bulk JPQL/native updates bypass entity listeners and must call PersonCache.invalidateAll() themselves.
+ */
+@Component
+public class PersonCacheInvalidator {
+
+    private final PersonCache cache;
+
+    public PersonCacheInvalidator(PersonCache cache) {
+        this.cache = cache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Person person) {
+        cache.invalidate(person.getId());
+    }
+}
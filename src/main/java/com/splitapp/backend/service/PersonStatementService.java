@@ -0,0 +1,133 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.dto.StatementCursor;
+import com.splitapp.backend.model.Person;
+import com.splitapp.backend.repository.PersonRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-person statements: every live expense a person paid for or owes a share of, in time order,
+ * with a running balance (paid minus owed) that ends at the person's current balance.
+ * <p>
+ * Each page is two keyset scans, the person's payments on {@code idx_expense_paid_by_created_at_id} and their
+ * splits on {@code idx_expense_split_person_created}, merged and cut to the page size. The person's
+ * share of each page row is then summed from a covering index, so the work per page does not grow with the tables.
+ */
+@Service
+@Timed("splitapp.service")
+public class PersonStatementService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String PAID_AFTER_CURSOR = "AND (e.created_at, e.id) > (:afterCreatedAt, :afterId)";
+    private static final String OWED_AFTER_CURSOR = "AND (s.created_at, s.expense_id) > (:afterCreatedAt, :afterId)";
+
+    private static final String PAGE_SQL = """
+            SELECT page.id, page.created_at, page.description, page.amount,
+                   CASE WHEN page.paid_by_id = :personId THEN page.amount ELSE 0 END AS paid,
+                   COALESCE(o.owed, 0) AS owed
+            FROM (
+                (SELECT e.id, e.created_at, e.description, e.amount, e.paid_by_id, e.revision FROM expense e
+                 WHERE e.paid_by_id = :personId %1$s
+                 ORDER BY e.created_at, e.id LIMIT :limit)
+                UNION
+                (SELECT e.id, e.created_at, e.description, e.amount, e.paid_by_id, e.revision FROM expense_split s
+                 JOIN expense e ON e.id = s.expense_id AND e.revision = s.revision
+                 WHERE s.person_id = :personId %2$s
+                 ORDER BY s.created_at, s.expense_id LIMIT :limit)
+                ORDER BY created_at, id LIMIT :limit
+            ) page
+            LEFT JOIN LATERAL (
+                SELECT SUM(s.amount_owed) AS owed FROM expense_split s
+                WHERE s.expense_id = page.id AND s.revision = page.revision AND s.person_id = :personId
+            ) o ON true
+            ORDER BY page.created_at, page.id""";
+
+    private final PersonRepository personRepo;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public PersonStatementService(PersonRepository personRepo, NamedParameterJdbcTemplate jdbc) {
+        this.personRepo = personRepo;
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Fetch one page of a person's statement, continuing after the given cursor (and from its running balance).
+     * Returns the items and the cursor of the next page (null on the last page).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStatement(String name, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        StatementCursor after = cursor == null ? null : StatementCursor.decode(cursor);
+        Person person = personRepo.findByName(name)
+                .orElseThrow(() -> new IllegalArgumentException("Person not found"));
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("personId", person.getId())
+                .addValue("limit", limit + 1); // One extra row tells whether another page exists
+        if (after != null) {
+            params.addValue("afterCreatedAt", after.getCreatedAt()).addValue("afterId", after.getExpenseId());
+        }
+        String sql = pageSql(after != null);
+
+        List<Row> rows = jdbc.query(sql, params, (rs, rowNum) -> new Row(rs.getLong("id"),
+                rs.getObject("created_at", LocalDateTime.class), rs.getString("description"),
+                rs.getBigDecimal("amount"), rs.getBigDecimal("paid"), rs.getBigDecimal("owed")));
+        boolean more = rows.size() > limit;
+        if (more) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>(rows.size());
+        BigDecimal balance = after == null ? BigDecimal.ZERO : after.getBalance();
+        for (Row row : rows) {
+            BigDecimal net = row.paid().subtract(row.owed());
+            balance = balance.add(net);
+
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("expenseId", row.expenseId());
+            item.put("createdAt", row.createdAt());
+            item.put("description", row.description());
+            item.put("amount", row.amount());
+            item.put("paid", row.paid());
+            item.put("owed", row.owed());
+            item.put("net", net);
+            item.put("balance", balance);
+            items.add(item);
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("person", person.getName());
+        page.put("items", items);
+        String next = null;
+        if (more) {
+            Row last = rows.get(limit - 1);
+            next = new StatementCursor(last.createdAt(), last.expenseId(), balance).encode();
+        }
+        page.put("nextCursor", next);
+        return page;
+    }
+
+    /**
+     * SQL of one page, with or without the keyset condition.
+     */
+    static String pageSql(boolean afterCursor) {
+        return PAGE_SQL.formatted(afterCursor ? PAID_AFTER_CURSOR : "", afterCursor ? OWED_AFTER_CURSOR : "");
+    }
+
+    private record Row(long expenseId, LocalDateTime createdAt, String description, BigDecimal amount, BigDecimal paid, BigDecimal owed) {
+    }
+}
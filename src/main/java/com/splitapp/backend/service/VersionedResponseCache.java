@@ -0,0 +1,58 @@
+package com.splitapp.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitapp.backend.datasource.ReadWriteRouting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Caches computed read results against the data version they were computed at.
+ * A new version simply misses; old entries age out of the small bounded cache.
+ * Concurrent misses for the same key and version are computed once.
+ * <p>
+ * The computation runs outside any cache lock (the first caller publishes a future, later callers wait on it):
+ * computing inside the map's compute() would hold a monitor across JDBC calls and pin virtual threads.
+ * <p>
+ * With a read replica, computations read from the primary: a lagging replica would otherwise leave an old
+ * result cached under a version it does not reflect, until the next write.
+ */
+@Component
+public class VersionedResponseCache {
+
+    private final Cache<String, CompletableFuture<Object>> results;
+
+    public VersionedResponseCache(@Value("${splitapp.response-cache.max-size:4096}") long maxSize) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, long version, Supplier<T> compute) {
+        String versionedKey = key + "@" + version;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = results.asMap().putIfAbsent(versionedKey, mine);
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            T value = ReadWriteRouting.onPrimary(compute);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            results.asMap().remove(versionedKey, mine); // Failures are not cached
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.splitapp.backend.service.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on {@code long} minor units (cents).
+ * BigDecimal is only used to convert values entering or leaving the system; all split and
+ * balance arithmetic in between works on primitives and allocates nothing but result arrays.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;                 // Minor units per major unit: 10^SCALE
+    public static final int PERCENT_SCALE = 4;         // Percentages are carried with four decimals (33.3333%)
+    private static final long HUNDRED_PERCENT = 100_0000L; // 100% at PERCENT_SCALE
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    private Money() {}
+
+    /**
+     * Convert an amount to minor units, rounding half-up beyond two decimals.
+     */
+    public static long toMinor(BigDecimal amount) {
+        return unscaled(amount, SCALE);
+    }
+
+    /**
+     * Convert minor units back to a two-decimal amount.
+     */
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /**
+     * Convert a percentage (e.g. 33.3333) to a fixed-point value at {@link #PERCENT_SCALE}.
+     */
+    public static long toPercentUnits(BigDecimal percent) {
+        return unscaled(percent, PERCENT_SCALE);
+    }
+
+    /**
+     * Split {@code total} into {@code parts} shares that differ by at most one minor unit and sum exactly to {@code total}.
+     * Leftover units go to the first shares (100.00 / 3 = 33.34, 33.33, 33.33).
+     */
+    public static long[] allocateEqually(long total, int parts) {
+        long[] shares = new long[parts];
+        long base = total / parts;
+        long leftover = total - base * parts; // Same sign as total, |leftover| < parts
+        long unit = Long.signum(leftover);
+        for (int i = 0; i < parts; i++) {
+            shares[i] = base;
+        }
+        for (int i = 0; leftover != 0; i++, leftover -= unit) {
+            shares[i] += unit;
+        }
+        return shares;
+    }
+
+    /**
+     * Allocate {@code total * percent[i] / 100%} to each share with the largest-remainder method.
+     * The shares sum to the rounded value of {@code total * sum(percent) / 100%}, i.e. exactly
+     * {@code total} when the percentages add up to 100.
+     *
+     * @param percentUnits percentages at {@link #PERCENT_SCALE}, see {@link #toPercentUnits(BigDecimal)}
+     */
+    public static long[] allocateByPercent(long total, long[] percentUnits) {
+        long[] shares = percentUnits.clone();
+        allocateByPercentInPlace(total, shares);
+        return shares;
+    }
+
+    /**
+     * {@link #allocateByPercent} into the given array: percentages in, shares out, with no other buffer.
+     */
+    static void allocateByPercentInPlace(long total, long[] units) {
+        int n = units.length;
+        long abs = Math.abs(total);
+        long allocated = 0;
+        long weight = 0;
+        long lowestRemainder = HUNDRED_PERCENT;
+        long highestRemainder = 0;
+        for (int i = 0; i < n; i++) {
+            if (units[i] < 0) {
+                throw new IllegalArgumentException("Negative percentage");
+            }
+            long product = Math.multiplyExact(abs, units[i]);
+            allocated += product / HUNDRED_PERCENT;
+            weight += units[i];
+            lowestRemainder = Math.min(lowestRemainder, product % HUNDRED_PERCENT);
+            highestRemainder = Math.max(highestRemainder, product % HUNDRED_PERCENT);
+        }
+
+        // Target total, rounded half-up. The missing units go to the shares with the largest remainders, earlier
+        // shares first on ties: find the largest remainder r that at least `missing` shares reach
+        long missing = (Math.multiplyExact(abs, weight) + HUNDRED_PERCENT / 2) / HUNDRED_PERCENT - allocated;
+        long threshold = HUNDRED_PERCENT; // Above every remainder: nobody gets an extra unit
+        long ties = 0;
+        if (missing > 0) {
+            long low = lowestRemainder; // Every share reaches it
+            long high = highestRemainder;
+            while (low < high) {
+                long mid = (low + high + 1) >>> 1;
+                if (countRemaindersFrom(abs, units, mid) >= missing) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            threshold = low;
+            ties = missing - countRemaindersFrom(abs, units, threshold + 1);
+        }
+
+        long sign = total < 0 ? -1 : 1;
+        for (int i = 0; i < n; i++) {
+            long product = abs * units[i];
+            long remainder = product % HUNDRED_PERCENT;
+            long share = product / HUNDRED_PERCENT;
+            if (remainder > threshold || (remainder == threshold && ties-- > 0)) {
+                share++;
+            }
+            units[i] = sign * share;
+        }
+    }
+
+    private static long countRemaindersFrom(long abs, long[] units, long from) {
+        long count = 0;
+        for (long unit : units) {
+            if (abs * unit % HUNDRED_PERCENT >= from) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * value * 10^scale as a long, rounded half-up.
+     * Values with at most {@code scale} decimals and 15 significant digits (every realistic amount
+     * and percentage) are converted through BigDecimal's allocation-free double fast path; 10^15 is far
+     * below 2^52, so rounding the scaled double recovers the exact integer. Anything else takes the
+     * exact BigDecimal route.
+     */
+    private static long unscaled(BigDecimal value, int scale) {
+        if (value.scale() >= 0 && value.scale() <= scale && value.precision() <= 15) {
+            return Math.round(value.doubleValue() * POWERS_OF_TEN[scale]);
+        }
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
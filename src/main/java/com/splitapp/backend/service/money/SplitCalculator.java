@@ -0,0 +1,79 @@
+package com.splitapp.backend.service.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Computes what each participant owes for an expense, in minor units.
+ * EQUAL and PERCENTAGE splits always add up exactly to the allocated total (largest remainder).
+ */
+public final class SplitCalculator {
+
+    private SplitCalculator() {}
+
+    /**
+     * @param splitType    EQUAL, EXACT or PERCENTAGE
+     * @param total        expense amount in minor units
+     * @param shareValues  exact amounts or percentages per participant (ignored for EQUAL)
+     * @param participants number of participants
+     * @return owed amount per participant, in minor units
+     */
+    public static long[] owed(String splitType, long total, List<BigDecimal> shareValues, int participants) {
+        switch (splitType) {
+            case "EXACT": {
+                long[] owed = new long[participants];
+                for (int i = 0; i < participants; i++) {
+                    owed[i] = Money.toMinor(shareValues.get(i));
+                }
+                return owed;
+            }
+            case "PERCENTAGE": {
+                long[] owed = new long[participants];
+                for (int i = 0; i < participants; i++) {
+                    owed[i] = Money.toPercentUnits(shareValues.get(i));
+                }
+                Money.allocateByPercentInPlace(total, owed);
+                return owed;
+            }
+            default:
+                return Money.allocateEqually(total, participants);
+        }
+    }
+
+    /**
+     * {@link #owed} as two-decimal amounts, for the stored splits. Equal shares share one BigDecimal, and exact
+     * amounts already at two decimals are used as given, so most splits convert only a few values.
+     */
+    public static BigDecimal[] owedAmounts(String splitType, long total, List<BigDecimal> shareValues, int participants) {
+        BigDecimal[] amounts = new BigDecimal[participants];
+        switch (splitType) {
+            case "EXACT":
+                for (int i = 0; i < participants; i++) {
+                    amounts[i] = shareValues.get(i).setScale(Money.SCALE, RoundingMode.HALF_UP); // Same object at scale 2
+                }
+                return amounts;
+            case "PERCENTAGE": {
+                long[] owed = owed(splitType, total, shareValues, participants);
+                BigDecimal previous = null;
+                for (int i = 0; i < participants; i++) {
+                    // Percentages are mostly even, so neighbouring shares are mostly the same amount
+                    previous = i > 0 && owed[i] == owed[i - 1] ? previous : Money.toDecimal(owed[i]);
+                    amounts[i] = previous;
+                }
+                return amounts;
+            }
+            default: {
+                // Shares differ by at most one unit, the larger ones first (see Money.allocateEqually)
+                long base = total / participants;
+                int larger = (int) Math.abs(total - base * participants);
+                BigDecimal baseAmount = Money.toDecimal(base);
+                BigDecimal largerAmount = larger == 0 ? baseAmount : Money.toDecimal(base + Long.signum(total));
+                for (int i = 0; i < participants; i++) {
+                    amounts[i] = i < larger ? largerAmount : baseAmount;
+                }
+                return amounts;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.splitapp.backend.service.settlement;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Repeatedly matches the largest debtor with the largest creditor.
+ * Runs in O(n log n) and needs at most n - 1 transfers, but may use more than the minimum.
+ */
+@Component
+public class GreedySettlementStrategy implements SettlementStrategy {
+
+    public static final String NAME = "greedy";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Result settle(List<String> names, long[] balances, long deadlineNanos) {
+        return new Result(settle(names, balances), true);
+    }
+
+    /**
+     * Greedy settlement of the given balances (the array is not modified).
+     */
+    static List<Transfer> settle(List<String> names, long[] balances) {
+        long[] remaining = balances.clone();
+
+        // Most negative balance first for debtors, most positive first for creditors
+        PriorityQueue<Integer> debtors = new PriorityQueue<>((a, b) -> Long.compare(remaining[a], remaining[b]));
+        PriorityQueue<Integer> creditors = new PriorityQueue<>((a, b) -> Long.compare(remaining[b], remaining[a]));
+        for (int i = 0; i < remaining.length; i++) {
+            if (remaining[i] < 0) debtors.add(i);
+            else if (remaining[i] > 0) creditors.add(i);
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!debtors.isEmpty() && !creditors.isEmpty()) {
+            int debtor = debtors.poll();
+            int creditor = creditors.poll();
+            long amt = Math.min(-remaining[debtor], remaining[creditor]);
+
+            transfers.add(new Transfer(names.get(debtor), names.get(creditor), amt));
+
+            remaining[debtor] += amt;
+            remaining[creditor] -= amt;
+
+            if (remaining[debtor] < 0) debtors.add(debtor);
+            if (remaining[creditor] > 0) creditors.add(creditor);
+        }
+        return transfers;
+    }
+}
@@ -0,0 +1,166 @@
+package com.splitapp.backend.service.settlement;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Minimises the number of transfers by splitting people into as many zero-sum subgroups as possible:
+ * a group of k people can always be settled with k - 1 transfers, so n people in g groups need n - g.
+ * <p>
+ * Exactly cancelling pairs are taken out first (always part of some optimal answer); the rest is solved
+ * with a bitmask DP over subsets when small enough, otherwise with a bounded search for zero-sum triples.
+ * If the deadline passes, the best grouping found so far is settled greedily and the result is marked incomplete.
+ */
+@Component
+public class MinTransfersSettlementStrategy implements SettlementStrategy {
+
+    public static final String NAME = "optimal";
+
+    private static final int EXACT_LIMIT = 20;          // 2^20 subsets: about 10 MB and tens of milliseconds
+    private static final int DEADLINE_CHECK_MASK = 0xFFF; // Check the clock every 4096 iterations
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Result settle(List<String> names, long[] balances, long deadlineNanos) {
+        List<int[]> groups = new ArrayList<>();
+        List<Integer> rest = extractPairs(balances, groups);
+
+        boolean complete = true;
+        if (rest.size() > EXACT_LIMIT) {
+            complete = false; // Heuristic territory: the grouping is not guaranteed optimal
+            rest = extractTriples(balances, rest, groups, deadlineNanos);
+        }
+
+        if (rest.size() <= EXACT_LIMIT) {
+            List<int[]> exact = exactGroups(balances, rest, deadlineNanos);
+            if (exact != null) {
+                groups.addAll(exact);
+                rest = List.of();
+            } else {
+                complete = false;
+            }
+        }
+        if (!rest.isEmpty()) {
+            groups.add(rest.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        for (int[] group : groups) {
+            List<String> groupNames = new ArrayList<>(group.length);
+            long[] groupBalances = new long[group.length];
+            for (int i = 0; i < group.length; i++) {
+                groupNames.add(names.get(group[i]));
+                groupBalances[i] = balances[group[i]];
+            }
+            transfers.addAll(GreedySettlementStrategy.settle(groupNames, groupBalances));
+        }
+        return new Result(transfers, complete);
+    }
+
+    /**
+     * Move every debtor/creditor pair with exactly opposite balances into its own group.
+     * Returns the indices of the remaining non-zero balances.
+     */
+    private static List<Integer> extractPairs(long[] balances, List<int[]> groups) {
+        Map<Long, Deque<Integer>> unmatched = new HashMap<>();
+        List<Integer> rest = new ArrayList<>();
+        for (int i = 0; i < balances.length; i++) {
+            if (balances[i] == 0) continue;
+            Deque<Integer> partners = unmatched.get(-balances[i]);
+            if (partners != null && !partners.isEmpty()) {
+                groups.add(new int[]{partners.pop(), i});
+            } else {
+                unmatched.computeIfAbsent(balances[i], k -> new ArrayDeque<>()).push(i);
+            }
+        }
+        unmatched.values().forEach(rest::addAll);
+        Collections.sort(rest);
+        return rest;
+    }
+
+    /**
+     * Greedily take out zero-sum triples (one pair plus the element cancelling it) until the deadline.
+     */
+    private static List<Integer> extractTriples(long[] balances, List<Integer> rest, List<int[]> groups, long deadlineNanos) {
+        Map<Long, Deque<Integer>> byValue = new HashMap<>();
+        for (int i : rest) {
+            byValue.computeIfAbsent(balances[i], k -> new ArrayDeque<>()).push(i);
+        }
+        Set<Integer> used = new HashSet<>();
+        outer:
+        for (int a = 0; a < rest.size(); a++) {
+            if (System.nanoTime() > deadlineNanos) break;
+            int i = rest.get(a);
+            if (used.contains(i)) continue;
+            for (int b = a + 1; b < rest.size(); b++) {
+                int j = rest.get(b);
+                if (used.contains(j)) continue;
+                Deque<Integer> candidates = byValue.get(-(balances[i] + balances[j]));
+                if (candidates == null) continue;
+                for (int k : candidates) {
+                    if (k != i && k != j && !used.contains(k)) {
+                        groups.add(new int[]{i, j, k});
+                        used.add(i);
+                        used.add(j);
+                        used.add(k);
+                        continue outer;
+                    }
+                }
+            }
+        }
+        return rest.stream().filter(i -> !used.contains(i)).toList();
+    }
+
+    /**
+     * Partition the given indices into the maximum number of zero-sum groups with a DP over subsets.
+     * Returns null if the deadline passes first.
+     */
+    private static List<int[]> exactGroups(long[] balances, List<Integer> items, long deadlineNanos) {
+        int m = items.size();
+        if (m == 0) {
+            return List.of();
+        }
+        int full = (1 << m) - 1;
+        long[] sum = new long[full + 1];
+        byte[] best = new byte[full + 1]; // Max zero-sum groups in this subset
+        byte[] pick = new byte[full + 1]; // Element removed to reach the best sub-subset
+
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadlineNanos) {
+                return null;
+            }
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + balances[items.get(low)];
+
+            int bestCount = -1;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                int i = Integer.numberOfTrailingZeros(bits);
+                int count = best[mask ^ (1 << i)];
+                if (count > bestCount) {
+                    bestCount = count;
+                    pick[mask] = (byte) i;
+                }
+            }
+            best[mask] = (byte) (bestCount + (sum[mask] == 0 ? 1 : 0));
+        }
+
+        // Walk back from the full set; every time the remaining subset sums to zero, a group is complete
+        List<int[]> groups = new ArrayList<>();
+        List<Integer> current = new ArrayList<>();
+        for (int mask = full; mask != 0; ) {
+            int i = pick[mask];
+            current.add(items.get(i));
+            mask ^= 1 << i;
+            if (sum[mask] == 0) {
+                groups.add(current.stream().mapToInt(Integer::intValue).toArray());
+                current = new ArrayList<>();
+            }
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,106 @@
+package com.splitapp.backend.service.settlement;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the settlement strategy chosen by name, bounding it by a wall-clock budget.
+ * Independent components of the debt graph are solved in parallel on a dedicated fork-join pool, all against the
+ * same deadline. Solved one after another, each component gets the time left in proportion to its people, plus
+ * whatever earlier components did not use, so one large component cannot leave the rest without any time.
+ */
+@Service
+public class SettlementEngine {
+
+    private static final int PARALLEL_THRESHOLD = 1024; // Below this many people, forking costs more than it saves
+
+    private final Map<String, SettlementStrategy> strategies = new HashMap<>();
+    private final Duration timeBudget;
+    private final ForkJoinPool pool;
+
+    public SettlementEngine(List<SettlementStrategy> strategies,
+                            @Value("${splitapp.settlement.time-budget:200ms}") Duration timeBudget,
+                            @Value("${splitapp.settlement.parallelism:0}") int parallelism) {
+        for (SettlementStrategy s : strategies) {
+            this.strategies.put(s.name(), s);
+        }
+        this.timeBudget = timeBudget;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Settle the given balances (in minor units) as a single group with the named strategy (greedy when null).
+     */
+    public SettlementReport settle(String strategyName, Map<String, Long> balances) {
+        return settle(strategyName, List.of(balances));
+    }
+
+    /**
+     * Settle each component independently with the named strategy (greedy when null) and merge the transfers.
+     * Every component must be closed: nobody in it owes or is owed by anyone outside it.
+     */
+    public SettlementReport settle(String strategyName, List<Map<String, Long>> components) {
+        String name = strategyName == null ? GreedySettlementStrategy.NAME : strategyName;
+        SettlementStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown settlement strategy: " + name + " (expected one of " + new TreeSet<>(strategies.keySet()) + ")");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeBudget.toNanos();
+        int people = components.stream().mapToInt(Map::size).sum();
+
+        List<SettlementStrategy.Result> results;
+        if (components.size() > 1 && people >= PARALLEL_THRESHOLD) {
+            try {
+                results = pool.submit(() -> components.parallelStream()
+                        .map(c -> settleComponent(strategy, c, deadline))
+                        .toList()).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Settlement interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Settlement failed", e.getCause());
+            }
+        } else {
+            results = new ArrayList<>(components.size());
+            long peopleLeft = people;
+            for (Map<String, Long> component : components) {
+                long now = System.nanoTime();
+                double share = peopleLeft == 0 ? 1 : (double) component.size() / peopleLeft;
+                results.add(settleComponent(strategy, component, now + (long) (Math.max(0, deadline - now) * share)));
+                peopleLeft -= component.size();
+            }
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        boolean complete = true;
+        for (SettlementStrategy.Result r : results) {
+            transfers.addAll(r.transfers());
+            complete &= r.complete();
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+        return new SettlementReport(name, complete, elapsedMicros, transfers);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private static SettlementStrategy.Result settleComponent(SettlementStrategy strategy, Map<String, Long> balances, long deadline) {
+        // Sorted by name so the same balances always produce the same transfers
+        List<String> names = new ArrayList<>(new TreeMap<>(balances).keySet());
+        long[] cents = new long[names.size()];
+        for (int i = 0; i < cents.length; i++) {
+            cents[i] = balances.get(names.get(i));
+        }
+        return strategy.settle(names, cents, deadline);
+    }
+}
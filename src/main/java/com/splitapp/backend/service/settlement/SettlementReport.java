@@ -0,0 +1,38 @@
+package com.splitapp.backend.service.settlement;
+
+import java.util.List;
+
+/**
+ * Transfers produced by the settlement engine, with which strategy ran and how long it took.
+ */
+public class SettlementReport {
+
+    private final String strategy;
+    private final boolean complete;     // False if the strategy hit its time budget and returned its best effort
+    private final long elapsedMicros;
+    private final List<Transfer> transfers;
+
+    public SettlementReport(String strategy, boolean complete, long elapsedMicros, List<Transfer> transfers) {
+        this.strategy = strategy;
+        this.complete = complete;
+        this.elapsedMicros = elapsedMicros;
+        this.transfers = transfers;
+    }
+
+    // Getters
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getElapsedMicros() {
+        return elapsedMicros;
+    }
+
+    public List<Transfer> getTransfers() {
+        return transfers;
+    }
+}
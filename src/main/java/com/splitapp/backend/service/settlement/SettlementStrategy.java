@@ -0,0 +1,31 @@
+package com.splitapp.backend.service.settlement;
+
+import java.util.List;
+
+/**
+ * Algorithm that turns net balances into a list of transfers that settles everyone.
+ * Implementations are Spring beans and are selected by {@link #name()}.
+ */
+public interface SettlementStrategy {
+
+    /**
+     * Name used to select this strategy (e.g. the {@code strategy} query parameter).
+     */
+    String name();
+
+    /**
+     * Compute transfers for the given balances.
+     *
+     * @param names         person names, parallel to {@code balances}
+     * @param balances      net balance per person in cents; must sum to zero
+     * @param deadlineNanos {@link System#nanoTime()} value after which the strategy must return its best answer so far
+     * @return the transfers, plus whether the strategy finished within the deadline
+     */
+    Result settle(List<String> names, long[] balances, long deadlineNanos);
+
+    /**
+     * Transfers computed by a strategy and whether it ran to completion.
+     */
+    record Result(List<Transfer> transfers, boolean complete) {
+    }
+}
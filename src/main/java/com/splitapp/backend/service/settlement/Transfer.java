@@ -0,0 +1,38 @@
+package com.splitapp.backend.service.settlement;
+
+import com.splitapp.backend.service.money.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * A single payment from a debtor to a creditor. Amounts are held in minor units (cents).
+ */
+public class Transfer {
+
+    private final String from;
+    private final String to;
+    private final long amountCents;
+
+    public Transfer(String from, String to, long amountCents) {
+        this.from = from;
+        this.to = to;
+        this.amountCents = amountCents;
+    }
+
+    // Getters
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public BigDecimal getAmount() {
+        return Money.toDecimal(amountCents);
+    }
+
+    public long amountCents() {
+        return amountCents;
+    }
+}
@@ -0,0 +1,52 @@
+package com.splitapp.backend.startup;
+
+import com.splitapp.backend.datasource.ReadReplicaDataSourceConfig;
+import com.splitapp.backend.datasource.VirtualThreadDataSourceConfig;
+import com.splitapp.backend.service.ExpenseIngestService;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Fails startup when a setting that decides whether beans exist no longer matches the beans that do. With Spring AOT
+ * those beans were chosen at build time, so a setting changed only at run time would otherwise be ignored silently.
+ * Without AOT the conditions are evaluated at startup and the check always passes.
+ */
+public class AotSettingsCheck implements SmartInitializingSingleton {
+
+    private record Setting(String name, Class<?> beanType, Predicate<Environment> enabled) {
+    }
+
+    private static final List<Setting> SETTINGS = List.of(
+            // Same tests as the beans' conditions: @ConditionalOnProperty without havingValue, and with "true"
+            new Setting("splitapp.datasource.replica.url", ReadReplicaDataSourceConfig.class,
+                    env -> env.containsProperty("splitapp.datasource.replica.url")
+                            && !"false".equalsIgnoreCase(env.getProperty("splitapp.datasource.replica.url"))),
+            new Setting("spring.threads.virtual.enabled", VirtualThreadDataSourceConfig.class, Threading.VIRTUAL::isActive),
+            new Setting("splitapp.ingest.enabled", ExpenseIngestService.class,
+                    env -> "true".equalsIgnoreCase(env.getProperty("splitapp.ingest.enabled"))));
+
+    private final ListableBeanFactory beanFactory;
+    private final Environment environment;
+
+    public AotSettingsCheck(ListableBeanFactory beanFactory, Environment environment) {
+        this.beanFactory = beanFactory;
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Setting setting : SETTINGS) {
+            boolean built = beanFactory.getBeanNamesForType(setting.beanType(), true, false).length > 0;
+            if (built != setting.enabled().test(environment)) {
+                throw new IllegalStateException("Setting " + setting.name() + " is " + (built ? "off" : "on")
+                        + " but the application was built with it " + (built ? "on" : "off")
+                        + "; rebuild with the new value or start without -Dspring.aot.enabled=true");
+            }
+        }
+    }
+}
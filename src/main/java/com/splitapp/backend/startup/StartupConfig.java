@@ -0,0 +1,52 @@
+package com.splitapp.backend.startup;
+
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup tuning. With {@code spring.main.lazy-initialization=true} beans are only created when first used, so
+ * auto-configured infrastructure that nothing on the request path reaches is never built. The request path itself
+ * is kept eager so the first request does not pay for it.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    /**
+     * Beans created at startup even when initialization is lazy: controllers (and so everything they depend on),
+     * beans with {@code @Scheduled} methods, which would otherwise never be scheduled, and lifecycle beans.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+                || Lifecycle.class.isAssignableFrom(beanType)
+                || hasScheduledMethods(beanType));
+    }
+
+    /**
+     * Eager even when initialization is lazy: a lazy bean never gets its {@code afterSingletonsInstantiated} call.
+     */
+    @Bean
+    @Lazy(false)
+    AotSettingsCheck aotSettingsCheck(ListableBeanFactory beanFactory, Environment environment) {
+        return new AotSettingsCheck(beanFactory, environment);
+    }
+
+    static boolean hasScheduledMethods(Class<?> type) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(type, method -> found.set(true),
+                method -> !found.get() && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return found.get();
+    }
+}
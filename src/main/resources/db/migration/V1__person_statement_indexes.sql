@@ -0,0 +1,10 @@
+-- Per-person statement (GET /people/{name}/statement): a person's splits, read from the index alone
+CREATE INDEX IF NOT EXISTS idx_expense_split_person_expense
+    ON expense_split (person_id, expense_id) INCLUDE (revision, amount_owed);
+
+-- Live splits of one expense, covering what the statement and balance checks read from them
+CREATE INDEX IF NOT EXISTS idx_expense_split_expense_covering
+    ON expense_split (expense_id, revision) INCLUDE (person_id, amount_owed);
+
+-- Superseded by idx_expense_split_expense_covering
+DROP INDEX IF EXISTS idx_expense_split_expense_revision;
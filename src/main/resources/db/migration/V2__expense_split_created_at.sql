@@ -0,0 +1,9 @@
+-- Per-person statement: a person's splits in time order, so each page reads only its own rows from the index
+-- (ExpenseSplit.createdAt is a copy of the expense's created_at, filled in here for splits written before it existed)
+UPDATE expense_split s SET created_at = e.created_at FROM expense e WHERE e.id = s.expense_id AND s.created_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_expense_split_person_created
+    ON expense_split (person_id, created_at, expense_id) INCLUDE (revision, amount_owed);
+
+-- Superseded by idx_expense_split_person_created
+DROP INDEX IF EXISTS idx_expense_split_person_expense;
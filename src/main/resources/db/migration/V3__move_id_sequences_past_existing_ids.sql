@@ -0,0 +1,8 @@
+-- Expense and split ids used to come from IDENTITY columns; they now come from the pooled expense_seq and
+-- expense_split_seq, where each value V covers ids (V - 50, V]. On a database created by an older version, start
+-- the sequences after the existing ids, so the next block cannot collide with them. New databases are left alone
+SELECT setval('expense_seq', (SELECT MAX(id) FROM expense))
+WHERE (SELECT MAX(id) FROM expense) >= (SELECT last_value FROM expense_seq);
+
+SELECT setval('expense_split_seq', (SELECT MAX(id) FROM expense_split))
+WHERE (SELECT MAX(id) FROM expense_split) >= (SELECT last_value FROM expense_split_seq);
@@ -0,0 +1,118 @@
+package com.splitapp.backend;
+
+import com.splitapp.backend.datasource.ConnectionLimitingDataSource;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the JDBC-heavy endpoints concurrently in virtual-thread mode and fails if any virtual thread
+ * blocked while pinned to its carrier (JFR jdk.VirtualThreadPinned) inside application, pool, driver or Hibernate code.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadPinningTests extends PostgresTestSupport {
+
+	private static final int CLIENTS = 32;
+	private static final int ROUNDS = 10;
+	private static final List<String> WATCHED = List.of("com.splitapp.", "org.postgresql.", "com.zaxxer.hikari.", "org.hibernate.");
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void jdbcPathsDoNotPinCarrierThreads() throws Exception {
+		HttpClient http = HttpClient.newHttpClient();
+		Path dump = Files.createTempFile("pinning", ".jfr");
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+		try (Recording recording = new Recording()) {
+			recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+			recording.start();
+
+			List<CompletableFuture<Integer>> calls = new ArrayList<>();
+			for (int c = 0; c < CLIENTS; c++) {
+				int client = c;
+				calls.add(CompletableFuture.supplyAsync(() -> {
+					for (int round = 0; round < ROUNDS; round++) {
+						// Every write bumps the data version, so the reads below always miss the response cache
+						send(http, HttpRequest.newBuilder(uri("/expenses")).header("Content-Type", "application/json")
+								.POST(HttpRequest.BodyPublishers.ofString("""
+										{"description": "Pinning", "amount": 12.00, "paidBy": "pin-%d",
+										 "participants": ["pin-%d", "pin-%d"], "splitType": "EQUAL"}
+										""".formatted(client, client, (client + 1) % CLIENTS))).build());
+						send(http, HttpRequest.newBuilder(uri("/expenses/balances")).build());
+						send(http, HttpRequest.newBuilder(uri("/expenses/settlements")).build());
+						send(http, HttpRequest.newBuilder(uri("/expenses?limit=20")).build());
+					}
+					return client;
+				}, clients));
+			}
+			CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+			recording.stop();
+			recording.dump(dump);
+		} finally {
+			clients.shutdown();
+		}
+
+		List<String> pinned = RecordingFile.readAllEvents(dump).stream()
+				.filter(e -> e.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+				.map(VirtualThreadPinningTests::describe)
+				.filter(stack -> WATCHED.stream().anyMatch(stack::contains))
+				.distinct()
+				.toList();
+		Files.delete(dump);
+		assertThat(pinned).as("Pinned virtual threads").isEmpty();
+
+		// Connections are admitted through the semaphore (behind the statement counter), and every permit came back
+		assertThat(dataSource.unwrap(ConnectionLimitingDataSource.class).inUse()).isZero();
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private static void send(HttpClient http, HttpRequest request) {
+		try {
+			HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+			assertThat(response.statusCode()).as(request.uri().toString()).isEqualTo(200);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String describe(RecordedEvent event) {
+		if (event.getStackTrace() == null) {
+			return "(no stack trace)";
+		}
+		return event.getStackTrace().getFrames().stream()
+				.map(RecordedFrame::getMethod)
+				.map(m -> m.getType().getName() + "." + m.getName())
+				.collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+	}
+}
@@ -0,0 +1,65 @@
+package com.splitapp.backend.cbor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Encodings checked against the examples in RFC 8949, appendix A.
+ */
+class CborGeneratorTests {
+
+	private final ObjectMapper cbor = new ObjectMapper(new CborFactory());
+
+	@Test
+	void integers() throws Exception {
+		assertThat(hex(0)).isEqualTo("00");
+		assertThat(hex(23)).isEqualTo("17");
+		assertThat(hex(24)).isEqualTo("1818");
+		assertThat(hex(1000)).isEqualTo("1903e8");
+		assertThat(hex(1000000)).isEqualTo("1a000f4240");
+		assertThat(hex(1000000000000L)).isEqualTo("1b000000e8d4a51000");
+		assertThat(hex(-1)).isEqualTo("20");
+		assertThat(hex(-1000)).isEqualTo("3903e7");
+		assertThat(hex(new BigInteger("18446744073709551616"))).isEqualTo("c249010000000000000000");
+		assertThat(hex(new BigInteger("-18446744073709551617"))).isEqualTo("c349010000000000000000");
+	}
+
+	@Test
+	void decimalsKeepTheirScale() throws Exception {
+		assertThat(hex(new BigDecimal("273.15"))).isEqualTo("c48221196ab3");
+		assertThat(hex(new BigDecimal("-0.50"))).isEqualTo("c482213831"); // [-2, -50]
+	}
+
+	@Test
+	void otherScalars() throws Exception {
+		assertThat(hex(1.1)).isEqualTo("fb3ff199999999999a");
+		assertThat(hex(true)).isEqualTo("f5");
+		assertThat(hex(null)).isEqualTo("f6");
+		assertThat(hex("IETF")).isEqualTo("6449455446");
+		assertThat(hex("ü")).isEqualTo("62c3bc");
+		assertThat(hex(new byte[] {1, 2, 3, 4})).isEqualTo("4401020304");
+	}
+
+	@Test
+	void containersUseIndefiniteLength() throws Exception {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("a", 1);
+		map.put("b", List.of(2, 3));
+
+		assertThat(hex(map)).isEqualTo("bf61610161629f0203ffff");
+		assertThat(hex(List.of())).isEqualTo("9fff");
+	}
+
+	private String hex(Object value) throws Exception {
+		return HexFormat.of().formatHex(cbor.writeValueAsBytes(value));
+	}
+}
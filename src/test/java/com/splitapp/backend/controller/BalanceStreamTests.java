@@ -0,0 +1,168 @@
+package com.splitapp.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.service.BalanceFeedService;
+import com.splitapp.backend.service.ExpenseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BalanceStreamTests extends PostgresTestSupport {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private BalanceFeedService balanceFeed;
+
+	@AfterEach
+	void closeStreams() {
+		balanceFeed.close(); // Lets the feed go idle instead of polling a database stopped at JVM exit
+	}
+
+	@Test
+	void pushesDeltasAndReplaysThemOnResume() throws Exception {
+		MvcResult live = openStream(null);
+		long start = waitForEvent(live, "ready").get("id").asLong();
+
+		expenseService.addExpense("Dinner", new BigDecimal("30.00"), "feed-a", List.of("feed-a", "feed-b"), "EQUAL", null);
+		Map<String, BigDecimal> pushed = deltasOf(waitForEvent(live, "balances"));
+		assertThat(pushed.get("feed-a")).isEqualByComparingTo("15.00");
+		assertThat(pushed.get("feed-b")).isEqualByComparingTo("-15.00");
+
+		// A client that saw only the ready event catches up with exactly the same deltas
+		MvcResult resumed = openStream(start);
+		assertThat(deltasOf(waitForEvent(resumed, "balances"))).isEqualTo(pushed);
+	}
+
+	@Test
+	void neverPublishesPastATransactionStillRunning() throws Exception {
+		MvcResult live = openStream(null);
+		waitForEvent(live, "ready");
+
+		// Takes lower ledger ids than the expense below but commits after it; disjoint people, so neither blocks the other
+		CountDownLatch appended = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			expenseService.addExpense("Slow", new BigDecimal("10.00"), "feed-slow", List.of("feed-slow", "feed-c"), "EQUAL", null);
+			appended.countDown();
+			await(commit);
+		}));
+		await(appended);
+		expenseService.addExpense("Fast", new BigDecimal("20.00"), "feed-fast", List.of("feed-fast", "feed-d"), "EQUAL", null);
+
+		Thread.sleep(1000); // Many poll intervals
+		assertThat(events(live, "balances")).isEmpty();
+
+		commit.countDown();
+		slow.get(10, TimeUnit.SECONDS);
+		Map<String, BigDecimal> total = new HashMap<>();
+		waitUntil(() -> {
+			total.clear();
+			for (JsonNode event : events(live, "balances")) {
+				deltasOf(event).forEach((name, delta) -> total.merge(name, delta, BigDecimal::add));
+			}
+			return total.containsKey("feed-slow") && total.containsKey("feed-fast");
+		});
+		assertThat(total.get("feed-c")).isEqualByComparingTo("-5.00");
+		assertThat(total.get("feed-d")).isEqualByComparingTo("-10.00");
+	}
+
+	private MvcResult openStream(Long lastEventId) throws Exception {
+		return mockMvc.perform(get("/expenses/balances/stream" + (lastEventId == null ? "" : "?lastEventId=" + lastEventId)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+	}
+
+	private JsonNode waitForEvent(MvcResult stream, String name) throws Exception {
+		List<JsonNode> found = new ArrayList<>();
+		waitUntil(() -> {
+			found.clear();
+			found.addAll(events(stream, name));
+			return !found.isEmpty();
+		});
+		return found.get(found.size() - 1);
+	}
+
+	/**
+	 * Data of every complete event with the given name received so far.
+	 */
+	private List<JsonNode> events(MvcResult stream, String name) throws Exception {
+		List<JsonNode> events = new ArrayList<>();
+		String content = stream.getResponse().getContentAsString();
+		// Events are written in parts; ignore one still being written
+		for (String block : content.substring(0, content.lastIndexOf("\n\n") + 1).split("\n\n")) {
+			String event = null;
+			String data = null;
+			for (String line : block.split("\n")) {
+				if (line.startsWith("event:")) {
+					event = line.substring(6);
+				} else if (line.startsWith("data:")) {
+					data = line.substring(5);
+				}
+			}
+			if (name.equals(event) && data != null) {
+				events.add(objectMapper.readTree(data));
+			}
+		}
+		return events;
+	}
+
+	private static Map<String, BigDecimal> deltasOf(JsonNode event) {
+		Map<String, BigDecimal> deltas = new HashMap<>();
+		event.get("deltas").forEach(d -> deltas.put(d.get("name").asText(), d.get("delta").decimalValue()));
+		return deltas;
+	}
+
+	private static void waitUntil(Condition condition) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.met()) {
+			assertThat(System.nanoTime()).as("condition met within 10s").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private interface Condition {
+		boolean met() throws Exception;
+	}
+}
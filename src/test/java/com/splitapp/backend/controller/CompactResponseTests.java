@@ -0,0 +1,142 @@
+package com.splitapp.backend.controller;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.service.ExpenseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CompactResponseTests extends PostgresTestSupport {
+
+	private static final Object BREAK = new Object();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void addExpenses() {
+		for (int i = 0; i < 3; i++) {
+			expenseService.addExpense("Compact " + i, new BigDecimal("12.50"), "compact-payer", List.of("compact-payer", "compact-other"), "EQUAL", null);
+		}
+	}
+
+	@Test
+	void cborPageNamesEachPayerOnce() throws Exception {
+		HttpResponse<byte[]> response = get("/expenses?payer=compact-payer&limit=3", "application/cbor", null);
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue("Content-Type")).hasValue("application/cbor");
+		@SuppressWarnings("unchecked")
+		Map<String, Object> page = (Map<String, Object>) decode(response.body());
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> items = (List<Map<String, Object>>) page.get("items");
+		assertThat(items).hasSize(3);
+		Map<String, Object> item = items.get(0);
+		assertThat(item.get("amount")).isEqualTo(new BigDecimal("12.50"));
+		assertThat(item).doesNotContainKey("groupId");
+		assertThat(page.get("people")).isEqualTo(Map.of(item.get("paidBy").toString(), "compact-payer"));
+	}
+
+	@Test
+	void clientsAcceptingAnythingStillGetJson() throws Exception {
+		HttpResponse<byte[]> response = get("/expenses?payer=compact-payer&limit=1", "*/*", null);
+
+		assertThat(response.headers().firstValue("Content-Type")).hasValue("application/json");
+		assertThat(new String(response.body(), StandardCharsets.UTF_8)).contains("\"paidBy\":{");
+	}
+
+	@Test
+	void largeResponsesAreGzipped() throws Exception {
+		HttpResponse<byte[]> response = get("/expenses?limit=100", "application/json", "gzip");
+
+		assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).startsWith("{\"items\":[");
+		}
+	}
+
+	private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).header("Accept", accept);
+		if (acceptEncoding != null) {
+			request.header("Accept-Encoding", acceptEncoding);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	/**
+	 * Just enough of a CBOR reader for the response shapes: maps (string keys), arrays, text, integers,
+	 * decimal fractions and null.
+	 */
+	private static Object decode(byte[] cbor) throws IOException {
+		return read(new DataInputStream(new ByteArrayInputStream(cbor)));
+	}
+
+	private static Object read(DataInputStream in) throws IOException {
+		int initial = in.readUnsignedByte();
+		int major = initial >>> 5;
+		int info = initial & 0x1f;
+		if (initial == 0xff) {
+			return BREAK;
+		}
+		if (initial == 0xf6) {
+			return null;
+		}
+		long argument = info < 24 ? info : info == 24 ? in.readUnsignedByte() : info == 25 ? in.readUnsignedShort()
+				: info == 26 ? in.readInt() & 0xffffffffL : info == 27 ? in.readLong() : -1;
+		switch (major) {
+			case 0:
+				return argument;
+			case 1:
+				return -1 - argument;
+			case 3:
+				return new String(in.readNBytes((int) argument), StandardCharsets.UTF_8);
+			case 4:
+				List<Object> array = new ArrayList<>();
+				for (Object element = read(in); element != BREAK; element = read(in)) {
+					array.add(element);
+					if (argument >= 0 && array.size() == argument) {
+						break;
+					}
+				}
+				return array;
+			case 5:
+				Map<String, Object> map = new LinkedHashMap<>();
+				for (Object key = read(in); key != BREAK; key = read(in)) {
+					map.put((String) key, read(in));
+				}
+				return map;
+			case 6:
+				assertThat(argument).as("decimal fraction tag").isEqualTo(4);
+				List<?> fraction = (List<?>) read(in);
+				return new BigDecimal(BigInteger.valueOf((Long) fraction.get(1)), (int) -(Long) fraction.get(0));
+			default:
+				throw new IllegalStateException("Unexpected CBOR initial byte " + initial);
+		}
+	}
+}
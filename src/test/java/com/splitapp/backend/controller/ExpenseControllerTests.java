@@ -0,0 +1,153 @@
+package com.splitapp.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.service.ExpenseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExpenseControllerTests extends PostgresTestSupport {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void pagesThroughExpensesWithKeysetCursor() throws Exception {
+		List<Long> created = addExpenses("page-payer", 5);
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			JsonNode page = getJson("/expenses?payer=page-payer&limit=2" + (cursor == null ? "" : "&cursor=" + cursor));
+			page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+		} while (cursor != null);
+
+		assertThat(seen).containsExactlyElementsOf(created);
+	}
+
+	@Test
+	void rejectsMalformedCursor() throws Exception {
+		mockMvc.perform(get("/expenses?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void streamsAllMatchingExpensesAsJsonArray() throws Exception {
+		List<Long> created = addExpenses("stream-payer", 3);
+
+		MvcResult started = mockMvc.perform(get("/expenses/stream?payer=stream-payer")).andReturn();
+		String body = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		List<Long> streamed = new ArrayList<>();
+		objectMapper.readTree(body).forEach(item -> streamed.add(item.get("id").asLong()));
+		assertThat(streamed).containsExactlyElementsOf(created);
+	}
+
+	@Test
+	void answersNotModifiedUntilBalancesChange() throws Exception {
+		addExpenses("etag-payer", 1);
+
+		for (String url : List.of("/expenses/balances", "/expenses/settlements")) {
+			String etag = mockMvc.perform(get(url)).andExpect(status().isOk())
+					.andReturn().getResponse().getHeader("ETag");
+			assertThat(etag).isNotNull().doesNotStartWith("W/");
+
+			mockMvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isNotModified());
+
+			addExpenses("etag-payer", 1);
+			String changed = mockMvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isOk())
+					.andReturn().getResponse().getHeader("ETag");
+			assertThat(changed).isNotEqualTo(etag);
+		}
+	}
+
+	@Test
+	void firstWriteOnFreshDatabaseChangesTheVersion() throws Exception {
+		Long before = jdbc.queryForObject("SELECT last_value FROM ledger_version_seq", Long.class);
+		try {
+			for (String url : List.of("/expenses/balances", "/expenses/settlements")) {
+				jdbc.execute("ALTER SEQUENCE ledger_version_seq RESTART"); // As created on a fresh database, never bumped
+				String etag = mockMvc.perform(get(url)).andExpect(status().isOk())
+						.andReturn().getResponse().getHeader("ETag");
+
+				addExpenses("fresh-payer", 1);
+				String changed = mockMvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isOk())
+						.andReturn().getResponse().getHeader("ETag");
+				assertThat(changed).isNotEqualTo(etag);
+			}
+		} finally {
+			// Skip past every version handed out before, so no cached result is reused under a repeated version
+			jdbc.queryForObject("SELECT setval('ledger_version_seq', ?)", Long.class, before + 1000);
+		}
+	}
+
+	@Test
+	void rejectsNegativeOrInconsistentShareValues() throws Exception {
+		String[] bodies = {
+				shareRequest("PERCENTAGE", "100.00", "150", "-50"),
+				shareRequest("PERCENTAGE", "100.00", "40", "50"),
+				shareRequest("EXACT", "100.00", "120.00", "-20.00"),
+				shareRequest("EXACT", "100.00", "40.00", "50.00")
+		};
+		for (String body : bodies) {
+			String response = mockMvc.perform(post("/expenses").contentType(MediaType.APPLICATION_JSON).content(body))
+					.andExpect(status().isBadRequest()).andReturn().getResponse().getContentAsString();
+			assertThat(objectMapper.readTree(response).get("success").asBoolean()).isFalse();
+		}
+
+		mockMvc.perform(post("/expenses").contentType(MediaType.APPLICATION_JSON)
+				.content(shareRequest("PERCENTAGE", "100.00", "33.33", "66.67"))).andExpect(status().isOk());
+		mockMvc.perform(post("/expenses").contentType(MediaType.APPLICATION_JSON)
+				.content(shareRequest("EXACT", "100.00", "40.00", "60"))).andExpect(status().isOk());
+	}
+
+	private String shareRequest(String splitType, String amount, String first, String second) throws Exception {
+		return objectMapper.writeValueAsString(Map.of("description", "Shares", "amount", new BigDecimal(amount),
+				"paidBy", "share-payer", "participants", List.of("share-payer", "share-friend"),
+				"splitType", splitType, "shareValues", List.of(new BigDecimal(first), new BigDecimal(second))));
+	}
+
+	private List<Long> addExpenses(String payer, int count) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(expenseService.addExpense("Item " + i, new BigDecimal("10.00"), payer,
+					List.of(payer, payer + "-friend"), "EQUAL", null).getId());
+		}
+		return ids;
+	}
+
+	private JsonNode getJson(String url) throws Exception {
+		String body = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+}
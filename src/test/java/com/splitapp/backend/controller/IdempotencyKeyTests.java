@@ -0,0 +1,123 @@
+package com.splitapp.backend.controller;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.service.ExpenseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyKeyTests extends PostgresTestSupport {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void replaysStoredResponseWithoutRunningTheWriteAgain() throws Exception {
+		String body = expense("idem-a", "20.00");
+		MvcResult first = addExpense("key-replay", body);
+		long writes = addExpenseCalls();
+		MvcResult retry = addExpense("key-replay", body);
+
+		assertThat(first.getResponse().getStatus()).isEqualTo(200);
+		assertThat(first.getResponse().getHeader("Idempotent-Replayed")).isEqualTo("false");
+		assertThat(retry.getResponse().getStatus()).isEqualTo(200);
+		assertThat(retry.getResponse().getHeader("Idempotent-Replayed")).isEqualTo("true");
+		assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+		assertThat(addExpenseCalls()).isEqualTo(writes);
+		assertThat(expensesPaidBy("idem-a")).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsKeyReusedForDifferentRequest() throws Exception {
+		addExpense("key-reused", expense("idem-b", "20.00"));
+
+		MvcResult other = addExpense("key-reused", expense("idem-b", "30.00"));
+		assertThat(other.getResponse().getStatus()).isEqualTo(400);
+		assertThat(expensesPaidBy("idem-b")).isEqualTo(1);
+	}
+
+	@Test
+	void doesNotKeepFailedResponses() throws Exception {
+		MvcResult failed = addExpense("key-failed", expense("idem-c", "5.00").replace("EQUAL", "BOGUS"));
+		assertThat(failed.getResponse().getStatus()).isEqualTo(400);
+
+		MvcResult fixed = addExpense("key-failed", expense("idem-c", "5.00"));
+		assertThat(fixed.getResponse().getStatus()).isEqualTo(200);
+		assertThat(expensesPaidBy("idem-c")).isEqualTo(1);
+	}
+
+	@Test
+	void coalescesConcurrentRequestsWithTheSameKey() throws Exception {
+		String body = expense("idem-d", "40.00");
+		int clients = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		try {
+			List<Future<MvcResult>> results = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				Callable<MvcResult> call = () -> {
+					start.await();
+					return addExpense("key-concurrent", body);
+				};
+				results.add(pool.submit(call));
+			}
+			start.countDown();
+
+			List<String> bodies = new ArrayList<>();
+			for (Future<MvcResult> result : results) {
+				assertThat(result.get().getResponse().getStatus()).isEqualTo(200);
+				bodies.add(result.get().getResponse().getContentAsString());
+			}
+			assertThat(bodies).containsOnly(bodies.get(0));
+		} finally {
+			pool.shutdown();
+		}
+		assertThat(expensesPaidBy("idem-d")).isEqualTo(1);
+	}
+
+	private MvcResult addExpense(String key, String body) throws Exception {
+		return mockMvc.perform(post("/expenses").header("Idempotency-Key", key)
+				.contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+	}
+
+	private static String expense(String payer, String amount) {
+		return """
+				{"description": "Cab", "amount": %s, "paidBy": "%s", "participants": ["%s", "%s-friend"], "splitType": "EQUAL"}
+				""".formatted(amount, payer, payer, payer);
+	}
+
+	private long addExpenseCalls() {
+		Timer timer = meterRegistry.find("splitapp.service").tag("method", "addExpense").timer();
+		return timer == null ? 0 : timer.count();
+	}
+
+	private int expensesPaidBy(String payer) {
+		return ((List<?>) expenseService.getExpensesPage(payer, null, null, null, 100).get("items")).size();
+	}
+}
@@ -0,0 +1,52 @@
+package com.splitapp.backend.controller;
+
+import com.splitapp.backend.PostgresTestSupport;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTests extends PostgresTestSupport {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void exportsEndpointServiceSqlAndHibernateMetrics() throws Exception {
+		mockMvc.perform(post("/expenses").contentType(MediaType.APPLICATION_JSON).content("""
+				{"description": "Lunch", "amount": 30.00, "paidBy": "metrics-a",
+				 "participants": ["metrics-a", "metrics-b", "metrics-c"], "splitType": "EQUAL"}
+				""")).andExpect(status().isOk());
+		mockMvc.perform(get("/expenses/balances")).andExpect(status().isOk());
+
+		DistributionSummary statements = registry.get("splitapp.sql.statements")
+				.tags("method", "POST", "uri", "/expenses").summary();
+		assertThat(statements.count()).isEqualTo(1);
+		assertThat(statements.max()).isPositive();
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(scrape)
+				.containsPattern("http_server_requests_seconds_bucket\\{.*uri=\"/expenses/balances\"")
+				.containsPattern("splitapp_service_seconds_bucket\\{.*method=\"getBalances\"")
+				.containsPattern("splitapp_sql_statements\\{.*uri=\"/expenses/balances\",quantile=\"0.99\"")
+				.contains("hibernate_statements_total")
+				.containsPattern("cache_gets_total\\{cache=\"person-ids\".*result=\"hit\"");
+	}
+}
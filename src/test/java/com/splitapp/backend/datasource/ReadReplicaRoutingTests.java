@@ -0,0 +1,103 @@
+package com.splitapp.backend.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitapp.backend.PostgresTestSupport;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two independent embedded databases stand in for primary and replica. The replica only holds a person table
+ * with a marker row, so a response shows which database served it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests extends PostgresTestSupport {
+
+	private static EmbeddedPostgres replica;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void replicaProperties(DynamicPropertyRegistry registry) throws IOException {
+		replica = EmbeddedPostgres.start();
+		JdbcTemplate jdbc = new JdbcTemplate(replica.getPostgresDatabase());
+		jdbc.execute("CREATE TABLE person (id bigint PRIMARY KEY, name varchar(255) NOT NULL UNIQUE)");
+		jdbc.update("INSERT INTO person (id, name) VALUES (1, 'replica-only')");
+		registry.add("splitapp.datasource.replica.url", () -> replica.getJdbcUrl("postgres", "postgres"));
+	}
+
+	@AfterAll
+	static void stopReplica() throws IOException {
+		replica.close();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToTheReplica() throws Exception {
+		assertThat(people(get("/expenses/people"))).contains("replica-only");
+	}
+
+	@Test
+	void writesGoToThePrimaryAndPinTheClientsReads() throws Exception {
+		Cookie pin = mockMvc.perform(post("/expenses").contentType(MediaType.APPLICATION_JSON).content("""
+						{"description": "Lunch", "amount": 20.00, "paidBy": "rw-a",
+						 "participants": ["rw-a", "rw-b"], "splitType": "EQUAL"}"""))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+		assertThat(pin).isNotNull();
+		assertThat(pin.getMaxAge()).isEqualTo(5);
+
+		assertThat(people(get("/expenses/people").cookie(pin))).contains("rw-a", "rw-b").doesNotContain("replica-only");
+		assertThat(people(get("/expenses/people"))).contains("replica-only").doesNotContain("rw-a");
+	}
+
+	@Test
+	void cachedBalancesAreComputedOnThePrimary() throws Exception {
+		mockMvc.perform(post("/expenses").contentType(MediaType.APPLICATION_JSON).content("""
+						{"description": "Taxi", "amount": 30.00, "paidBy": "rw-c",
+						 "participants": ["rw-c", "rw-d"], "splitType": "EQUAL"}"""))
+				.andExpect(status().isOk());
+
+		// The replica has no ledger tables, so this only succeeds on the primary
+		JsonNode balances = objectMapper.readTree(mockMvc.perform(get("/expenses/balances"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		List<String> names = new ArrayList<>();
+		balances.forEach(b -> names.add(b.get("name").asText()));
+		assertThat(names).contains("rw-c", "rw-d");
+	}
+
+	private List<String> people(MockHttpServletRequestBuilder request) throws Exception {
+		String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		List<String> names = new ArrayList<>();
+		for (Map<?, ?> person : objectMapper.readValue(body, Map[].class)) {
+			names.add((String) person.get("name"));
+		}
+		return names;
+	}
+}
@@ -0,0 +1,98 @@
+package com.splitapp.backend.graphql;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.service.ExpenseService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureGraphQlTester
+class GraphQlControllerTests extends PostgresTestSupport {
+
+	private static final String EXPENSES_WITH_SPLITS = """
+			query($payer: String) {
+			  expenses(payer: $payer, first: 100) {
+			    items { id amount paidBy { name } splits { amountOwed person { name } } }
+			  }
+			}""";
+
+	@Autowired
+	private GraphQlTester graphQlTester;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void resolvesExpensesWithPayersAndSplits() {
+		addExpenses("gql-payer", 2);
+
+		graphQlTester.document(EXPENSES_WITH_SPLITS).variable("payer", "gql-payer").execute()
+				.path("expenses.items[*].paidBy.name").entityList(String.class).containsExactly("gql-payer", "gql-payer")
+				.path("expenses.items[0].amount").entity(String.class).isEqualTo("12.00")
+				.path("expenses.items[0].splits[*].amountOwed").entityList(String.class).containsExactly("6.00", "6.00");
+	}
+
+	@Test
+	void statementCountDoesNotGrowWithPageSize() {
+		addExpenses("gql-few", 5);
+		addExpenses("gql-many", 25);
+
+		long few = statementsFor("gql-few", 5);
+		long many = statementsFor("gql-many", 25);
+
+		assertThat(many).isEqualTo(few);
+	}
+
+	@Test
+	void rejectsTooDeepQueries() {
+		String nested = "expense { splits { %s } }";
+		String selection = "id";
+		for (int i = 0; i < 4; i++) {
+			selection = nested.formatted(selection);
+		}
+		graphQlTester.document("{ expenses(first: 1) { items { splits { " + selection + " } } } }").execute().errors()
+				.satisfy(errors -> assertThat(errors).anySatisfy(error -> assertThat(error.getMessage()).contains("depth")));
+	}
+
+	@Test
+	void rejectsTooComplexQueries() {
+		String page = "expenses(first: 1000) { items { id paidBy { id name } splits { id amountOwed person { id name } } } }";
+		graphQlTester.document("{ first: " + page + " second: " + page + " }").execute().errors()
+				.satisfy(errors -> assertThat(errors).anySatisfy(error -> assertThat(error.getMessage()).contains("complexity")));
+	}
+
+	@Test
+	void reportsInvalidArgumentsAsBadRequest() {
+		graphQlTester.document("{ expense(id: -1) { id } }").execute().errors()
+				.satisfy(errors -> assertThat(errors).anySatisfy(error -> assertThat(error.getMessage()).isEqualTo("Expense not found")));
+	}
+
+	private long statementsFor(String payer, int expected) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		graphQlTester.document(EXPENSES_WITH_SPLITS).variable("payer", payer).execute()
+				.path("expenses.items").entityList(Object.class).hasSize(expected);
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void addExpenses(String payer, int count) {
+		for (int i = 0; i < count; i++) {
+			expenseService.addExpense("Item " + i, new BigDecimal("12.00"), payer,
+					List.of(payer, payer + "-friend"), "EQUAL", null);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.splitapp.backend.metrics;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.repository.PersonRepository;
+import com.splitapp.backend.service.CsvTransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SqlStatementCounterTests extends PostgresTestSupport {
+
+	@Autowired
+	private SqlStatementCounter counter;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PersonRepository personRepo;
+
+	@Autowired
+	private CsvTransferService csvTransferService;
+
+	@Test
+	void countsJdbcTemplateStatements() {
+		counter.reset();
+		jdbc.queryForObject("SELECT 1", Integer.class); // Plain statement
+		jdbc.queryForObject("SELECT ?", Integer.class, 2); // Prepared statement
+		jdbc.batchUpdate("INSERT INTO person (name) VALUES (?)", List.of(new Object[]{"counter-a"}, new Object[]{"counter-b"}));
+		assertThat(counter.current()).isEqualTo(3); // A batch is one statement
+	}
+
+	@Test
+	void countsHibernateAndCopyStatements() {
+		counter.reset();
+		personRepo.findByName("counter-nobody");
+		assertThat(counter.current()).isEqualTo(1);
+
+		counter.reset();
+		csvTransferService.exportCsv(null, OutputStream.nullOutputStream());
+		assertThat(counter.current()).isEqualTo(1);
+	}
+}
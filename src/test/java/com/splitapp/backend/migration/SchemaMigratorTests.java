@@ -0,0 +1,43 @@
+package com.splitapp.backend.migration;
+
+import com.splitapp.backend.PostgresTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SchemaMigratorTests extends PostgresTestSupport {
+
+	private static final long OLD_ID = 5_000_000_000_000L;
+	private static final int ALLOCATION_SIZE = 50;
+
+	@Autowired
+	private SchemaMigrator migrator;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void movesIdSequencesPastIdsWrittenBeforeThem() {
+		// Rows written by the IDENTITY columns of an older version, before V3 ran
+		jdbc.update("INSERT INTO person (name) VALUES ('migrate-a')");
+		Long person = jdbc.queryForObject("SELECT id FROM person WHERE name = 'migrate-a'", Long.class);
+		jdbc.update("INSERT INTO expense (id, description, amount, paid_by_id, created_at, revision) VALUES (?, 'Old', 1.00, ?, now(), 1)",
+				OLD_ID, person);
+		jdbc.update("INSERT INTO expense_split (id, expense_id, person_id, amount_owed, share_type, revision) VALUES (?, ?, ?, 1.00, 'EQUAL', 1)",
+				OLD_ID, OLD_ID, person);
+		jdbc.update("DELETE FROM schema_migration WHERE version = 3");
+
+		migrator.migrate();
+
+		assertThat(jdbc.queryForList("SELECT version FROM schema_migration", Integer.class)).contains(3);
+		for (String sequence : new String[]{"expense_seq", "expense_split_seq"}) {
+			// The next block handed out, (V - 50, V], starts after the old ids
+			Long next = jdbc.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+			assertThat(next - ALLOCATION_SIZE).isGreaterThanOrEqualTo(OLD_ID);
+		}
+	}
+}
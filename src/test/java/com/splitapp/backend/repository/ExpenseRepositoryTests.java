@@ -0,0 +1,80 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.model.Expense;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExpenseRepositoryTests extends PostgresTestSupport {
+
+	private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+	@TestConfiguration
+	static class CaptureSql {
+
+		@Bean
+		@Order(Ordered.LOWEST_PRECEDENCE)
+		HibernatePropertiesCustomizer captureSql() {
+			return properties -> {
+				StatementInspector next = (StatementInspector) properties.get(AvailableSettings.STATEMENT_INSPECTOR);
+				properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+					statements.add(sql);
+					return next == null ? sql : next.inspect(sql);
+				});
+			};
+		}
+	}
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void deepPageStartsTheIndexScanAtTheCursor() {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.executeWithoutResult(status -> {
+			// 50k expenses a minute apart; rolled back at the end
+			jdbc.update("INSERT INTO person (name) VALUES ('keyset-plan')");
+			Long payer = jdbc.queryForObject("SELECT id FROM person WHERE name = 'keyset-plan'", Long.class);
+			jdbc.update("INSERT INTO expense (id, description, amount, paid_by_id, created_at, revision) " +
+					"SELECT 8000000000 + g, 'Plan', 10.00, ?, timestamp '2001-01-01' + g * interval '1 minute', 1 " +
+					"FROM generate_series(1, 50000) g", payer);
+			jdbc.execute("ANALYZE expense");
+
+			LocalDateTime afterCreatedAt = LocalDateTime.of(2001, 1, 1, 0, 0).plusMinutes(40000);
+			statements.clear();
+			List<Expense> page = expenseRepository.findPage(null, null, null, null, afterCreatedAt, 8000040000L, 50);
+			assertThat(page).extracting(Expense::getId).first().isEqualTo(8000040001L);
+
+			String sql = statements.stream().filter(s -> s.contains("created_at")).findFirst().orElseThrow();
+			String plan = String.join("\n", jdbc.queryForList("EXPLAIN (ANALYZE) " + sql, String.class,
+					Timestamp.valueOf(afterCreatedAt), 8000040000L, 50));
+			assertThat(plan).contains("Index Cond: (ROW(").doesNotContain("Rows Removed by Filter");
+			status.setRollbackOnly();
+		});
+	}
+}
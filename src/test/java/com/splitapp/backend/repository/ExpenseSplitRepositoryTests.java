@@ -0,0 +1,41 @@
+package com.splitapp.backend.repository;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.model.Expense;
+import com.splitapp.backend.model.ExpenseSplit;
+import com.splitapp.backend.model.Person;
+import com.splitapp.backend.service.ExpenseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExpenseSplitRepositoryTests extends PostgresTestSupport {
+
+	@Autowired
+	private ExpenseSplitRepository splitRepository;
+
+	@Autowired
+	private PersonRepository personRepository;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Test
+	void personQueriesSkipSupersededRevisions() {
+		Expense expense = expenseService.addExpense("Taxi", new BigDecimal("20.00"), "split-a", List.of("split-a", "split-b"), "EQUAL", null);
+		expenseService.updateExpense(expense.getId(), "Taxi", new BigDecimal("30.00"), "split-a", List.of("split-a", "split-b"), "EQUAL", null);
+		Person person = personRepository.findByName("split-b").orElseThrow();
+
+		assertThat(splitRepository.findByExpense(expense)).hasSize(4); // Both revisions are kept
+		assertThat(splitRepository.findByPerson(person)).extracting(ExpenseSplit::getAmountOwed)
+				.containsExactly(new BigDecimal("15.00"));
+		assertThat(splitRepository.findByPersonAndExpense(person, expense)).extracting(ExpenseSplit::getAmountOwed)
+				.containsExactly(new BigDecimal("15.00"));
+	}
+}
@@ -0,0 +1,48 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Polls only when the test calls poll(), so the statements it runs are counted on the test thread
+@SpringBootTest(properties = "splitapp.balance-feed.poll-interval=PT1H")
+class BalanceFeedServiceTests extends PostgresTestSupport {
+
+	private static final int SUBSCRIBERS = 50;
+
+	@Autowired
+	private BalanceFeedService balanceFeed;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private SqlStatementCounter counter;
+
+	@AfterEach
+	void closeStreams() {
+		balanceFeed.close();
+	}
+
+	@Test
+	void oneChangeIsQueriedOnceForAllSubscribers() {
+		for (int i = 0; i < SUBSCRIBERS; i++) {
+			balanceFeed.subscribe(null);
+		}
+		expenseService.addExpense("Shared", new BigDecimal("10.00"), "poll-a", List.of("poll-a", "poll-b"), "EQUAL", null);
+
+		counter.reset();
+		balanceFeed.poll();
+
+		assertThat(balanceFeed.getSubscriberCount()).isEqualTo(SUBSCRIBERS);
+		assertThat(counter.current()).isEqualTo(2); // The horizon, then one delta query for every subscriber
+	}
+}
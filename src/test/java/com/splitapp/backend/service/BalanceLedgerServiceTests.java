@@ -0,0 +1,129 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.metrics.SqlStatementCounter;
+import com.splitapp.backend.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BalanceLedgerServiceTests extends PostgresTestSupport {
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private BalanceLedgerService ledger;
+
+	@Autowired
+	private SqlStatementCounter counter;
+
+	@Test
+	void ledgerFollowsAddUpdateAndDelete() {
+		Expense dinner = expenseService.addExpense("Dinner", new BigDecimal("90.00"), "ledger-a",
+				List.of("ledger-a", "ledger-b", "ledger-c"), "EQUAL", null);
+		assertThat(balanceOf("ledger-a")).isEqualByComparingTo("60.00");
+		assertThat(balanceOf("ledger-b")).isEqualByComparingTo("-30.00");
+
+		expenseService.updateExpense(dinner.getId(), "Dinner", new BigDecimal("50.00"), "ledger-b",
+				List.of("ledger-a", "ledger-b"), "EXACT", List.of(new BigDecimal("20.00"), new BigDecimal("30.00")));
+		assertThat(balanceOf("ledger-a")).isEqualByComparingTo("-20.00");
+		assertThat(balanceOf("ledger-b")).isEqualByComparingTo("20.00");
+		assertThat(balanceOf("ledger-c")).isEqualByComparingTo("0.00");
+
+		expenseService.deleteExpense(dinner.getId());
+		assertThat(balanceOf("ledger-a")).isEqualByComparingTo("0.00");
+		assertThat(balanceOf("ledger-b")).isEqualByComparingTo("0.00");
+
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+	}
+
+	@Test
+	void rebuildRepairsDrift() {
+		Expense taxi = expenseService.addExpense("Taxi", new BigDecimal("40.00"), "drift-a",
+				List.of("drift-a", "drift-b", "drift-c", "drift-d"), "EQUAL", null);
+		counter.reset();
+		expenseService.verifyBalances();
+		int consistentStatements = counter.current();
+		jdbc.update("DELETE FROM ledger_entry WHERE expense_id = ?", taxi.getId());
+
+		counter.reset();
+		Map<String, Object> report = expenseService.verifyBalances();
+		assertThat(report).containsEntry("consistent", false);
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> drift = (List<Map<String, Object>>) report.get("drift");
+		assertThat(drift).extracting(d -> d.get("name")).containsExactlyInAnyOrder("drift-a", "drift-b", "drift-c", "drift-d");
+		assertThat(counter.current()).isEqualTo(consistentStatements + 1); // The names of every drifting person at once
+		expenseService.rebuildBalances();
+
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+		assertThat(balanceOf("drift-b")).isEqualByComparingTo("-10.00");
+	}
+
+	@Test
+	void editsAreAppendedAsReversalAndNewEntries() {
+		Expense lunch = expenseService.addExpense("Lunch", new BigDecimal("30.00"), "audit-a",
+				List.of("audit-a", "audit-b"), "EQUAL", null);
+		expenseService.updateExpense(lunch.getId(), "Lunch", new BigDecimal("40.00"), "audit-a",
+				List.of("audit-a", "audit-b"), "EQUAL", null);
+		expenseService.deleteExpense(lunch.getId());
+
+		List<Map<String, Object>> history = expenseService.getExpenseHistory(lunch.getId());
+
+		assertThat(history).extracting(e -> e.get("kind") + "@" + e.get("revision")).containsExactly(
+				"EXPENSE@1", "EXPENSE@1", "EXPENSE@1",
+				"REVERSAL@1", "REVERSAL@1",
+				"EXPENSE@2", "EXPENSE@2", "EXPENSE@2",
+				"REVERSAL@2", "REVERSAL@2");
+		assertThat(balanceOf("audit-b")).isEqualByComparingTo("0.00");
+	}
+
+	@Test
+	void balancesAreTheSnapshotPlusLaterEntries() {
+		Expense hotel = expenseService.addExpense("Hotel", new BigDecimal("120.00"), "snap-a",
+				List.of("snap-a", "snap-b", "snap-c"), "EQUAL", null);
+		assertThat(ledger.snapshot()).containsEntry("created", true);
+		assertThat(ledger.snapshot()).containsEntry("created", false);
+
+		expenseService.updateExpense(hotel.getId(), "Hotel", new BigDecimal("90.00"), "snap-b",
+				List.of("snap-a", "snap-b", "snap-c"), "EQUAL", null);
+		assertThat(balanceOf("snap-a")).isEqualByComparingTo("-30.00");
+		assertThat(balanceOf("snap-b")).isEqualByComparingTo("60.00");
+
+		ledger.snapshot();
+		assertThat(balanceOf("snap-a")).isEqualByComparingTo("-30.00");
+		assertThat(balanceOf("snap-b")).isEqualByComparingTo("60.00");
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+	}
+
+	@Test
+	void groupsPeopleWhoNeverSharedAnExpenseIntoSeparateComponents() {
+		expenseService.addExpense("Rent", new BigDecimal("100.00"), "flat-a", List.of("flat-a", "flat-b"), "EQUAL", null);
+		expenseService.addExpense("Fuel", new BigDecimal("60.00"), "trip-a", List.of("trip-b", "trip-c"), "EQUAL", null);
+		expenseService.addExpense("Snacks", new BigDecimal("10.00"), "trip-c", List.of("trip-a"), "EQUAL", null);
+
+		List<Map<String, Long>> components = ledger.getBalanceComponents();
+
+		assertThat(components).anySatisfy(c -> assertThat(c).containsOnlyKeys("flat-a", "flat-b"));
+		assertThat(components).anySatisfy(c -> assertThat(c).containsOnlyKeys("trip-a", "trip-b", "trip-c"));
+	}
+
+	private BigDecimal balanceOf(String name) {
+		return expenseService.getBalances().stream()
+				.filter(b -> name.equals(b.get("name")))
+				.map(b -> (BigDecimal) b.get("netBalance"))
+				.findFirst()
+				.orElse(BigDecimal.ZERO);
+	}
+}
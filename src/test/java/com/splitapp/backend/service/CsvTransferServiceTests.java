@@ -0,0 +1,115 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CsvTransferServiceTests extends PostgresTestSupport {
+
+	@Autowired
+	private CsvTransferService csvService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private GroupService groupService;
+
+	@Test
+	void importsExpensesWithTheirSplitsAndLedgerEntries() {
+		Long group = groupService.createGroup("Csv trip").getId();
+		Map<String, Object> result = csvService.importCsv(csv(
+				CsvTransferService.COLUMNS,
+				"a,Dinner,90.00,csv-a,2024-05-01 19:00:00,,csv-a,30.00,EQUAL,",
+				"a,Dinner,90.00,csv-a,2024-05-01 19:00:00,,csv-b,30.00,EQUAL,",
+				"a,Dinner,90.00,csv-a,2024-05-01 19:00:00,,csv-c,30.00,EQUAL,",
+				"b,\"Fuel, diesel\",40.00,csv-b,," + group + ",csv-a,40.00,EXACT,40.00"));
+
+		assertThat(result).containsEntry("expenses", 2L).containsEntry("splits", 4L);
+		assertThat(balanceOf("csv-a")).isEqualByComparingTo("20.00");
+		assertThat(balanceOf("csv-b")).isEqualByComparingTo("10.00");
+		assertThat(groupService.getBalances(group)).hasSize(2);
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+
+		// Ids come from the same sequences as JPA inserts, so both keep working side by side
+		expenseService.addExpense("Taxi", new BigDecimal("10.00"), "csv-c", List.of("csv-a"), "EQUAL", null);
+		assertThat(balanceOf("csv-a")).isEqualByComparingTo("10.00");
+	}
+
+	@Test
+	void exportsInTheImportFormat() {
+		Long group = groupService.createGroup("Csv export").getId();
+		groupService.addExpense(group, "Hotel", new BigDecimal("100.00"), "csvx-a", List.of("csvx-a", "csvx-b"), "EQUAL", null);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(csvService.exportCsv(group, out)).isEqualTo(2);
+		String exported = out.toString(StandardCharsets.UTF_8);
+		assertThat(exported).startsWith(CsvTransferService.COLUMNS + "\n").contains(",Hotel,100.00,csvx-a,");
+
+		// Importing the export again doubles every balance in the group
+		csvService.importCsv(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(groupService.getBalances(group))
+				.anySatisfy(b -> assertThat(b).containsEntry("name", "csvx-b").containsEntry("netBalance", new BigDecimal("-100.00")));
+	}
+
+	@Test
+	void rejectsTheWholeFileWhenOneExpenseIsInvalid() {
+		assertThatThrownBy(() -> csvService.importCsv(csv(
+				CsvTransferService.COLUMNS,
+				"ok,Lunch,20.00,csvbad-a,,,csvbad-b,20.00,EQUAL,",
+				"bad,Lunch,20.00,csvbad-a,,,csvbad-b,15.00,EQUAL,")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Expense bad");
+		assertThatThrownBy(() -> csvService.importCsv(csv(CsvTransferService.COLUMNS, "x,Lunch,not-a-number,a,,,b,1,EQUAL,")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageStartingWith("Malformed CSV");
+
+		assertThat(expenseService.getAllPeople()).noneMatch(p -> p.getName().startsWith("csvbad-"));
+	}
+
+	@Test
+	void rejectsSharesTheApiWouldRefuse() {
+		String[][] expenses = {
+				{"d,Lunch,20.00,csvshare-a,,,csvshare-a,30.00,EXACT,30.00", "d,Lunch,20.00,csvshare-a,,,csvshare-b,-10.00,EXACT,-10.00"},
+				{"d,Lunch,20.00,csvshare-a,,,csvshare-a,10.00,PERCENTAGE,50", "d,Lunch,20.00,csvshare-a,,,csvshare-b,10.00,PERCENTAGE,40"},
+				{"d,Lunch,20.00,csvshare-a,,,csvshare-a,10.00,PERCENTAGE,60", "d,Lunch,20.00,csvshare-a,,,csvshare-b,10.00,PERCENTAGE,-10"},
+				{"d,Lunch,20.00,csvshare-a,,,csvshare-a,10.00,EXACT,12.00", "d,Lunch,20.00,csvshare-a,,,csvshare-b,10.00,EXACT,8.00"},
+				{"d,Lunch,20.00,csvshare-a,,,csvshare-a,10.00,EXACT,10.00", "d,Lunch,20.00,csvshare-a,,,csvshare-b,10.00,EQUAL,"}
+		};
+		for (String[] rows : expenses) {
+			assertThatThrownBy(() -> csvService.importCsv(csv(CsvTransferService.COLUMNS, rows[0], rows[1])))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessageStartingWith("Expense d:");
+		}
+
+		csvService.importCsv(csv(CsvTransferService.COLUMNS,
+				"p,Lunch,20.00,csvshare-a,,,csvshare-a,6.67,PERCENTAGE,33.3333",
+				"p,Lunch,20.00,csvshare-a,,,csvshare-b,13.33,PERCENTAGE,66.6667"));
+		assertThat(balanceOf("csvshare-b")).isEqualByComparingTo("-13.33");
+	}
+
+	private static InputStream csv(String... lines) {
+		return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+	}
+
+	private BigDecimal balanceOf(String name) {
+		return expenseService.getBalances().stream()
+				.filter(b -> name.equals(b.get("name")))
+				.map(b -> (BigDecimal) b.get("netBalance"))
+				.findFirst()
+				.orElse(BigDecimal.ZERO);
+	}
+}
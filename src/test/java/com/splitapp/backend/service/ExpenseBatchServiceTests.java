@@ -0,0 +1,96 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.dto.BatchItemResult;
+import com.splitapp.backend.dto.ExpenseRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"splitapp.batch.chunk-size=100"
+})
+class ExpenseBatchServiceTests extends PostgresTestSupport {
+
+	private static final int EXPENSES = 500;
+
+	@Autowired
+	private ExpenseBatchService batchService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void reportsOneResultPerItemAndSkipsInvalidOnes() {
+		ExpenseRequest invalid = request("batch-a", "batch-b");
+		invalid.setSplitType("HALF");
+
+		List<BatchItemResult> results = batchService.addExpenses(List.of(
+				request("batch-a", "batch-b"), invalid, request("batch-b", "batch-c")));
+
+		assertThat(results).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2);
+		assertThat(results).extracting(BatchItemResult::isSuccess).containsExactly(true, false, true);
+		assertThat(results.get(1).getMessage()).isEqualTo("Invalid splitType");
+		assertThat(results.get(0).getId()).isNotNull();
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+	}
+
+	@Test
+	void batchIngestWritesEveryRowInBatchedStatements() {
+		List<ExpenseRequest> requests = new ArrayList<>();
+		for (int i = 0; i < EXPENSES; i++) {
+			requests.add(request("ingest-" + (i % 50), "ingest-" + ((i + 1) % 50), "ingest-" + ((i + 2) % 50)));
+		}
+		batchService.addExpenses(requests.subList(0, 1)); // Creates the 50 people up front, so only expense writes are counted
+
+		statistics.clear();
+		List<BatchItemResult> results = batchService.addExpenses(requests);
+		long statements = statistics.getPrepareStatementCount();
+
+		assertThat(results).allMatch(BatchItemResult::isSuccess);
+		Long[] ids = results.stream().map(BatchItemResult::getId).toArray(Long[]::new);
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM expense WHERE id = ANY(?)", Long.class, (Object) ids)).isEqualTo(EXPENSES);
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM expense_split WHERE expense_id = ANY(?)", Long.class, (Object) ids)).isEqualTo(2L * EXPENSES);
+		// A credit for the payer and a debit per split, adding up to zero
+		assertThat(jdbc.queryForObject("SELECT count(*) FROM ledger_entry WHERE expense_id = ANY(?)", Long.class, (Object) ids)).isEqualTo(3L * EXPENSES);
+		assertThat(jdbc.queryForObject("SELECT sum(amount) FROM ledger_entry WHERE expense_id = ANY(?)", BigDecimal.class, (Object) ids)).isZero();
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+		// Measured 53 for 5 chunks: pooled id blocks (10 expense, 20 split) plus a few batched inserts and lookups per chunk
+		assertThat(statements).isLessThanOrEqualTo(53);
+	}
+
+	private static ExpenseRequest request(String paidBy, String... participants) {
+		ExpenseRequest r = new ExpenseRequest();
+		r.setDescription("Card feed");
+		r.setAmount(new BigDecimal("30.00"));
+		r.setPaidBy(paidBy);
+		r.setParticipants(List.of(participants));
+		r.setSplitType("EQUAL");
+		return r;
+	}
+}
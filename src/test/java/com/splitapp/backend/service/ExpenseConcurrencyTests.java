@@ -0,0 +1,126 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.model.Expense;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stress tests for concurrent writers: new names created by many writers at once, and concurrent edits of one expense.
+ */
+@SpringBootTest
+class ExpenseConcurrencyTests extends PostgresTestSupport {
+
+	private static final int WRITERS = 64;
+	private static final int EXPENSES_PER_WRITER = 10;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Test
+	void concurrentWritersIntroducingTheSameNamesNeverFail() throws Exception {
+		double single = expensesPerSecond("upsert-1", 1);
+		double concurrent = expensesPerSecond("upsert-64", WRITERS);
+
+		// Every expense made it in (expensesPerSecond fails on any error), and contention did not collapse throughput
+		assertThat(expenseService.getExpensesPage("upsert-64-payer-0", null, null, null, 1000).get("items"))
+				.asInstanceOf(InstanceOfAssertFactories.LIST).hasSize(WRITERS * EXPENSES_PER_WRITER / 4);
+		assertThat(concurrent).isGreaterThan(single * 0.5);
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+	}
+
+	@Test
+	void concurrentEditsOfOneExpenseConflictInsteadOfOverwriting() throws Exception {
+		Expense expense = expenseService.addExpense("Rent", new BigDecimal("100.00"), "edit-a", List.of("edit-a", "edit-b"), "EQUAL", null);
+		AtomicInteger applied = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+
+		runConcurrently(WRITERS, writer -> {
+			try {
+				expenseService.updateExpense(expense.getId(), expense.getVersion(), "Rent", new BigDecimal(100 + writer),
+						"edit-a", List.of("edit-a", "edit-b"), "EQUAL", null);
+				applied.incrementAndGet();
+			} catch (OptimisticLockingFailureException e) {
+				conflicts.incrementAndGet();
+			}
+		});
+
+		// All edits started from the same version, so exactly one may win
+		assertThat(applied.get()).isEqualTo(1);
+		assertThat(conflicts.get()).isEqualTo(WRITERS - 1);
+		assertThat(expenseService.getExpense(expense.getId()).getVersion()).isEqualTo(expense.getVersion() + 1);
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+	}
+
+	@Test
+	void rejectsUpdatesOfAStaleVersion() {
+		Expense expense = expenseService.addExpense("Gas", new BigDecimal("30.00"), "stale-a", List.of("stale-a", "stale-b"), "EQUAL", null);
+		expenseService.updateExpense(expense.getId(), expense.getVersion(), "Gas", new BigDecimal("40.00"), "stale-a",
+				List.of("stale-a", "stale-b"), "EQUAL", null);
+
+		assertThatThrownBy(() -> expenseService.updateExpense(expense.getId(), expense.getVersion(), "Gas", new BigDecimal("50.00"),
+				"stale-a", List.of("stale-a", "stale-b"), "EQUAL", null))
+				.isInstanceOf(OptimisticLockingFailureException.class);
+	}
+
+	/**
+	 * Add WRITERS * EXPENSES_PER_WRITER expenses from the given number of threads; every thread uses the same
+	 * four payers and a fresh participant name per round, so they race to create the same people.
+	 */
+	private double expensesPerSecond(String prefix, int threads) throws Exception {
+		int total = WRITERS * EXPENSES_PER_WRITER;
+		AtomicInteger next = new AtomicInteger();
+		long start = System.nanoTime();
+		runConcurrently(threads, writer -> {
+			for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+				String payer = prefix + "-payer-" + (i % 4);
+				String shared = prefix + "-guest-" + (i / WRITERS); // Introduced by up to WRITERS writers at once
+				expenseService.addExpense("Round " + i, new BigDecimal("12.00"), payer, List.of(payer, shared), "EQUAL", null);
+			}
+		});
+		return total / ((System.nanoTime() - start) / 1e9);
+	}
+
+	private void runConcurrently(int threads, Writer writer) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Void>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int id = t;
+				Callable<Void> call = () -> {
+					start.await();
+					writer.run(id);
+					return null;
+				};
+				results.add(pool.submit(call));
+			}
+			start.countDown();
+			for (Future<Void> result : results) {
+				result.get(); // Rethrows the first failure of any writer
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private interface Writer {
+		void run(int writer) throws Exception;
+	}
+}
@@ -0,0 +1,116 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.dto.BatchItemResult;
+import com.splitapp.backend.dto.ExpenseRequest;
+import com.splitapp.backend.dto.IngestStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "splitapp.ingest.enabled=true")
+class ExpenseIngestServiceTests extends PostgresTestSupport {
+
+	@Autowired
+	private ExpenseIngestService ingestService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Test
+	void storesQueuedExpensesInGroups() throws Exception {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			ids.add(ingestService.submit(request("ingest-a", "10.00", "EQUAL")));
+		}
+		ExpenseRequest tooLong = request("ingest-a", "10.00", "EQUAL");
+		tooLong.setDescription("x".repeat(300)); // Passes validation, fails on insert
+		String bad = ingestService.submit(tooLong);
+		for (int i = 0; i < 50; i++) {
+			ids.add(ingestService.submit(request("ingest-a", "10.00", "EQUAL")));
+		}
+
+		waitUntil(() -> ids.stream().allMatch(id -> ingestService.getStatus(id).state().equals(IngestStatus.CREATED)));
+		waitUntil(() -> ingestService.getStatus(bad).state().equals(IngestStatus.FAILED));
+		assertThat(expenseService.getExpensesPage("ingest-a", null, null, null, 1000).get("items")).asInstanceOf(InstanceOfAssertFactories.LIST).hasSize(250);
+		assertThat(expenseService.verifyBalances()).containsEntry("consistent", true);
+	}
+
+	@Test
+	void rejectsInvalidRequestsOnSubmit() {
+		assertThatThrownBy(() -> ingestService.submit(request("ingest-b", "10.00", "BOGUS")))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid splitType");
+	}
+
+	@Test
+	void rejectsWhenFullAndDrainsOnStop() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger stored = new AtomicInteger();
+		ExpenseBatchService blockingWriter = mock(ExpenseBatchService.class);
+		when(blockingWriter.addExpenses(anyList())).thenAnswer(call -> {
+			writing.countDown();
+			release.await();
+			List<BatchItemResult> results = new ArrayList<>();
+			for (int i = 0; i < call.<List<?>>getArgument(0).size(); i++) {
+				results.add(BatchItemResult.created(i, (long) stored.incrementAndGet()));
+			}
+			return results;
+		});
+		ExpenseIngestService service = new ExpenseIngestService(expenseService, blockingWriter, new SimpleMeterRegistry(),
+				2, 10, Duration.ofSeconds(10), Duration.ofMinutes(1));
+		service.start();
+
+		List<String> ids = new ArrayList<>();
+		ids.add(service.submit(request("ingest-c", "10.00", "EQUAL")));
+		assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue(); // The writer is stuck on the first one
+		ids.add(service.submit(request("ingest-c", "10.00", "EQUAL")));
+		ids.add(service.submit(request("ingest-c", "10.00", "EQUAL")));
+		assertThatThrownBy(() -> service.submit(request("ingest-c", "10.00", "EQUAL")))
+				.isInstanceOf(RejectedExecutionException.class);
+
+		release.countDown();
+		service.stop();
+
+		assertThat(service.isRunning()).isFalse();
+		assertThat(ids).allMatch(id -> service.getStatus(id).state().equals(IngestStatus.CREATED));
+		assertThatThrownBy(() -> service.submit(request("ingest-c", "10.00", "EQUAL")))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition met within 30s").isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private static ExpenseRequest request(String payer, String amount, String splitType) {
+		ExpenseRequest request = new ExpenseRequest();
+		request.setDescription("Queued");
+		request.setAmount(new BigDecimal(amount));
+		request.setPaidBy(payer);
+		request.setParticipants(List.of(payer, payer + "-friend"));
+		request.setSplitType(splitType);
+		return request;
+	}
+}
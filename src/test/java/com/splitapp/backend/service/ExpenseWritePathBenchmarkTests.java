@@ -0,0 +1,76 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements of the addExpense write path for a 50-person expense; the caps are the measured counts.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.show-sql=false"
+})
+class ExpenseWritePathBenchmarkTests extends PostgresTestSupport {
+
+	private static final int PARTICIPANTS = 50;
+	private static final int ROUNDS = 20;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void newParticipants() {
+		long statements = measure("new", true);
+		assertThat(statements).isLessThanOrEqualTo(8);
+	}
+
+	@Test
+	void knownParticipants() {
+		measure("known", false);
+		long statements = measure("known", false);
+		assertThat(statements).isLessThanOrEqualTo(5);
+	}
+
+	/**
+	 * Runs ROUNDS expenses and returns the median number of prepared statements per expense. The median leaves out
+	 * the occasional extra round trip for a new block of pooled ids.
+	 */
+	private long measure(String label, boolean freshNames) {
+		long[] statements = new long[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++) {
+			List<String> names = new ArrayList<>();
+			for (int i = 0; i < PARTICIPANTS; i++) {
+				names.add(freshNames ? "bench-" + label + "-" + round + "-" + i : "bench-" + label + "-" + i);
+			}
+
+			statistics.clear();
+			expenseService.addExpense("Benchmark", new BigDecimal("500.00"), names.get(0), names, "EQUAL", null);
+			statements[round] = statistics.getPrepareStatementCount();
+		}
+		Arrays.sort(statements);
+		return statements[ROUNDS / 2];
+	}
+}
@@ -0,0 +1,92 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.model.Expense;
+import com.splitapp.backend.service.settlement.Transfer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class GroupServiceTests extends PostgresTestSupport {
+
+	@Autowired
+	private GroupService groupService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void balancesAndSettlementsOnlyCoverTheGroupsOwnExpenses() {
+		Long trip = groupService.createGroup("Trip").getId();
+		Long flat = groupService.createGroup("Flat").getId();
+
+		// The same people appear in both groups
+		groupService.addExpense(trip, "Fuel", new BigDecimal("60.00"), "grp-a", List.of("grp-a", "grp-b"), "EQUAL", null);
+		groupService.addExpense(flat, "Rent", new BigDecimal("100.00"), "grp-b", List.of("grp-a", "grp-b"), "EQUAL", null);
+
+		assertThat(balanceOf(trip, "grp-a")).isEqualByComparingTo("30.00");
+		assertThat(balanceOf(flat, "grp-a")).isEqualByComparingTo("-50.00");
+
+		List<Transfer> transfers = groupService.getSettlements(trip, null).getTransfers();
+		assertThat(transfers).singleElement().satisfies(t -> {
+			assertThat(t.getFrom()).isEqualTo("grp-b");
+			assertThat(t.getAmount()).isEqualByComparingTo("30.00");
+		});
+
+		Map<String, Object> page = groupService.getExpensesPage(flat, null, null, null, null, 10);
+		assertThat((List<?>) page.get("items")).singleElement()
+				.satisfies(e -> assertThat(((Expense) e).getDescription()).isEqualTo("Rent"));
+	}
+
+	@Test
+	void groupLedgerFollowsUpdateDeleteAndRebuild() {
+		Long group = groupService.createGroup("Dinner club").getId();
+		long version = groupService.getDataVersion(group);
+
+		Expense dinner = groupService.addExpense(group, "Dinner", new BigDecimal("90.00"), "club-a",
+				List.of("club-a", "club-b", "club-c"), "EQUAL", null);
+		assertThat(groupService.getDataVersion(group)).isGreaterThan(version);
+
+		expenseService.updateExpense(dinner.getId(), "Dinner", new BigDecimal("50.00"), "club-b",
+				List.of("club-a", "club-b"), "EQUAL", null);
+		assertThat(balanceOf(group, "club-a")).isEqualByComparingTo("-25.00");
+		assertThat(balanceOf(group, "club-b")).isEqualByComparingTo("25.00");
+		assertThat(balanceOf(group, "club-c")).isEqualByComparingTo("0.00");
+
+		groupService.addExpense(group, "Drinks", new BigDecimal("20.00"), "club-c", List.of("club-a"), "EQUAL", null);
+		expenseService.deleteExpense(dinner.getId());
+		jdbc.update("DELETE FROM ledger_entry WHERE group_id = ?", group);
+		expenseService.rebuildBalances();
+
+		assertThat(balanceOf(group, "club-a")).isEqualByComparingTo("-20.00");
+		assertThat(balanceOf(group, "club-b")).isEqualByComparingTo("0.00");
+		assertThat(balanceOf(group, "club-c")).isEqualByComparingTo("20.00");
+	}
+
+	@Test
+	void rejectsUnknownGroup() {
+		assertThatThrownBy(() -> groupService.addExpense(-1L, "Nope", BigDecimal.TEN, "x", List.of("x"), "EQUAL", null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Group not found");
+	}
+
+	private BigDecimal balanceOf(Long groupId, String name) {
+		return groupService.getBalances(groupId).stream()
+				.filter(b -> name.equals(b.get("name")))
+				.map(b -> (BigDecimal) b.get("netBalance"))
+				.findFirst()
+				.orElse(BigDecimal.ZERO);
+	}
+}
@@ -0,0 +1,40 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.model.Person;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonCacheTests {
+
+	@Test
+	void servesCachedIdsAndCountsHitsAndMisses() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		PersonCache cache = new PersonCache(100, registry);
+		cache.putAll(List.of(person(1L, "alice"), person(2L, "bob")));
+
+		assertThat(cache.getAll(List.of("alice", "carol"))).containsOnlyKeys("alice");
+		assertThat(cache.getAll(List.of("alice")).get("alice").getId()).isEqualTo(1L);
+		assertThat(registry.get("cache.gets").tags("cache", "person-ids", "result", "hit").functionCounter().count()).isEqualTo(2);
+		assertThat(registry.get("cache.gets").tags("cache", "person-ids", "result", "miss").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidatesEveryNameOfARenamedPerson() {
+		PersonCache cache = new PersonCache(100, new SimpleMeterRegistry());
+		cache.putAll(List.of(person(1L, "alice"), person(2L, "bob")));
+
+		cache.invalidate(1L);
+
+		assertThat(cache.getAll(List.of("alice", "bob"))).containsOnlyKeys("bob");
+	}
+
+	private static Person person(Long id, String name) {
+		Person p = new Person(name);
+		p.setId(id);
+		return p;
+	}
+}
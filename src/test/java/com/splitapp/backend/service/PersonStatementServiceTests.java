@@ -0,0 +1,127 @@
+package com.splitapp.backend.service;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class PersonStatementServiceTests extends PostgresTestSupport {
+
+	@Autowired
+	private PersonStatementService statementService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private NamedParameterJdbcTemplate namedJdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pagesThroughStatementWithRunningBalance() {
+		expenseService.addExpense("Hotel", new BigDecimal("30.00"), "stmt-a", List.of("stmt-a", "stmt-b", "stmt-c"), "EQUAL", null);
+		Expense dinner = expenseService.addExpense("Dinner", new BigDecimal("20.00"), "stmt-b", List.of("stmt-a", "stmt-b"), "EQUAL", null);
+		expenseService.addExpense("Fuel", new BigDecimal("9.00"), "stmt-c", List.of("stmt-b", "stmt-c"), "EQUAL", null);
+		expenseService.addExpense("Taxi", new BigDecimal("12.00"), "stmt-c", List.of("stmt-a"), "EQUAL", null);
+		expenseService.updateExpense(dinner.getId(), "Dinner", new BigDecimal("40.00"), "stmt-b", List.of("stmt-a", "stmt-b"), "EQUAL", null);
+
+		List<Map<String, Object>> items = new ArrayList<>();
+		String cursor = null;
+		do {
+			Map<String, Object> page = statementService.getStatement("stmt-a", cursor, 1);
+			items.addAll((List<Map<String, Object>>) page.get("items"));
+			cursor = (String) page.get("nextCursor");
+		} while (cursor != null);
+
+		assertThat(items).extracting(item -> item.get("description")).containsExactly("Hotel", "Dinner", "Taxi");
+		assertThat(items).extracting(item -> (BigDecimal) item.get("net"))
+				.usingElementComparator(BigDecimal::compareTo)
+				.containsExactly(new BigDecimal("20.00"), new BigDecimal("-20.00"), new BigDecimal("-12.00")); // Only the live revision counts
+		assertThat((BigDecimal) items.get(2).get("balance")).isEqualByComparingTo("-12.00");
+		assertThat((BigDecimal) items.get(2).get("balance")).isEqualByComparingTo(balanceOf("stmt-a"));
+	}
+
+	@Test
+	void rejectsUnknownPeopleAndBadCursors() {
+		assertThatThrownBy(() -> statementService.getStatement("stmt-nobody", null, 10))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Person not found");
+		expenseService.addExpense("Snack", new BigDecimal("2.00"), "stmt-d", List.of("stmt-d"), "EQUAL", null);
+		assertThatThrownBy(() -> statementService.getStatement("stmt-d", "not-a-cursor", 10))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid cursor");
+	}
+
+	@Test
+	void migrationCreatesCoveringIndexes() {
+		assertThat(jdbc.queryForList("SELECT version FROM schema_migration", Integer.class)).contains(1, 2);
+		assertThat(jdbc.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = 'expense_split'", String.class))
+				.contains("idx_expense_split_person_created", "idx_expense_split_expense_covering")
+				.doesNotContain("idx_expense_split_expense_revision", "idx_expense_split_person_expense");
+	}
+
+	@Test
+	void statementPageScansABoundedNumberOfRows() {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.executeWithoutResult(status -> {
+			// 1000 people, 10k expenses, 30k splits, 10k of them owed by one person; rolled back at the end
+			jdbc.update("INSERT INTO person (name) SELECT 'stmt-plan-' || g FROM generate_series(1, 1000) g");
+			Long firstPerson = jdbc.queryForObject("SELECT MIN(id) FROM person WHERE name LIKE 'stmt-plan-%'", Long.class);
+			jdbc.update("INSERT INTO expense (id, description, amount, paid_by_id, created_at, revision) " +
+					"SELECT 9000000000 + g, 'Plan', 30.00, ? + g % 1000, now() - g * interval '1 minute', 1 FROM generate_series(1, 10000) g",
+					firstPerson);
+			jdbc.update("INSERT INTO expense_split (id, expense_id, person_id, amount_owed, share_type, created_at, revision) " +
+					"SELECT 9000000000 + g, e.id, CASE WHEN g % 3 = 0 THEN ? + 42 ELSE ? + (g * 7) % 1000 END, 10.00, 'EQUAL', e.created_at, 1 " +
+					"FROM generate_series(0, 29999) g JOIN expense e ON e.id = 9000000000 + g / 3 + 1",
+					firstPerson, firstPerson);
+			jdbc.execute("ANALYZE expense");
+			jdbc.execute("ANALYZE expense_split");
+
+			for (boolean afterCursor : new boolean[]{false, true}) {
+				MapSqlParameterSource params = new MapSqlParameterSource()
+						.addValue("personId", firstPerson + 42)
+						.addValue("limit", 51)
+						.addValue("afterCreatedAt", LocalDateTime.now().minusDays(3))
+						.addValue("afterId", 0L);
+				List<String> plan = namedJdbc.queryForList("EXPLAIN (ANALYZE) " + PersonStatementService.pageSql(afterCursor), params, String.class);
+				assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+				// Without created_at on the split index every remaining split of the person (thousands) is read and sorted
+				String splitScan = plan.stream().filter(line -> line.contains("idx_expense_split_person_created")).findFirst().orElseThrow();
+				Matcher rows = Pattern.compile("actual time=\\S+ rows=(\\d+)").matcher(splitScan);
+				assertThat(rows.find()).isTrue();
+				assertThat(Integer.parseInt(rows.group(1))).isLessThanOrEqualTo(51);
+			}
+			status.setRollbackOnly();
+		});
+	}
+
+	private BigDecimal balanceOf(String name) {
+		return expenseService.getBalances().stream()
+				.filter(b -> name.equals(b.get("name")))
+				.map(b -> (BigDecimal) b.get("netBalance"))
+				.findFirst()
+				.orElse(BigDecimal.ZERO);
+	}
+}
@@ -0,0 +1,71 @@
+package com.splitapp.backend.service.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SplitCalculatorTests {
+
+	@Test
+	void equalSplitKeepsEveryCent() {
+		long[] owed = SplitCalculator.owed("EQUAL", 10_000, null, 3);
+
+		assertThat(owed).containsExactly(3334, 3333, 3333);
+	}
+
+	@Test
+	void equalSplitOfNegativeAmountKeepsEveryCent() {
+		long[] owed = SplitCalculator.owed("EQUAL", -10_000, null, 3);
+
+		assertThat(owed).containsExactly(-3334, -3333, -3333);
+	}
+
+	@Test
+	void percentageSplitAddsUpToTheAmount() {
+		List<BigDecimal> percents = List.of(new BigDecimal("33.33"), new BigDecimal("33.33"), new BigDecimal("33.34"));
+
+		long[] owed = SplitCalculator.owed("PERCENTAGE", 1_001, percents, 3);
+
+		assertThat(owed[0] + owed[1] + owed[2]).isEqualTo(1_001);
+		assertThat(owed).containsExactly(334, 333, 334);
+	}
+
+	@Test
+	void exactSplitUsesGivenAmounts() {
+		long[] owed = SplitCalculator.owed("EXACT", 5_000, List.of(new BigDecimal("20.00"), new BigDecimal("30")), 2);
+
+		assertThat(owed).containsExactly(2_000, 3_000);
+	}
+
+	@Test
+	void storedAmountsMatchTheMinorUnits() {
+		List<BigDecimal> percents = List.of(new BigDecimal("12.5"), new BigDecimal("12.5"), new BigDecimal("37.5"), new BigDecimal("37.5"));
+		List<BigDecimal> exact = List.of(new BigDecimal("3.33"), new BigDecimal("6"), new BigDecimal("1.014"));
+
+		assertThat(SplitCalculator.owedAmounts("EQUAL", 1_000, null, 3))
+				.containsExactly(new BigDecimal("3.34"), new BigDecimal("3.33"), new BigDecimal("3.33"));
+		assertThat(SplitCalculator.owedAmounts("PERCENTAGE", 1_001, percents, 4))
+				.containsExactly(new BigDecimal("1.25"), new BigDecimal("1.25"), new BigDecimal("3.76"), new BigDecimal("3.75")); // Tied remainders: the first
+		BigDecimal[] amounts = SplitCalculator.owedAmounts("EXACT", 1_035, exact, 3);
+		assertThat(amounts).containsExactly(new BigDecimal("3.33"), new BigDecimal("6.00"), new BigDecimal("1.01"));
+		assertThat(amounts[0]).isSameAs(exact.get(0)); // Already at two decimals
+	}
+
+	@Test
+	void rejectsNegativePercentage() {
+		List<BigDecimal> percents = List.of(new BigDecimal("150"), new BigDecimal("-50"));
+
+		assertThatThrownBy(() -> SplitCalculator.owed("PERCENTAGE", 10_000, percents, 2))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void convertsBetweenDecimalAndMinorUnits() {
+		assertThat(Money.toMinor(new BigDecimal("12.345"))).isEqualTo(1_235);
+		assertThat(Money.toDecimal(-1_235)).isEqualByComparingTo("-12.35");
+	}
+}
@@ -0,0 +1,75 @@
+package com.splitapp.backend.service.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinTransfersSettlementStrategyTests {
+
+	private final MinTransfersSettlementStrategy optimal = new MinTransfersSettlementStrategy();
+	private final GreedySettlementStrategy greedy = new GreedySettlementStrategy();
+
+	@Test
+	void needsFewerTransfersThanGreedyWhenZeroSumSubgroupsExist() {
+		long[] balances = {-900, 700, -200, 500, 600, -700};
+
+		SettlementStrategy.Result result = optimal.settle(names(6), balances, noDeadline());
+
+		assertThat(greedy.settle(names(6), balances, noDeadline()).transfers()).hasSize(5);
+		assertThat(result.transfers()).hasSize(4);
+		assertThat(result.complete()).isTrue();
+		assertSettles(balances, result.transfers());
+	}
+
+	@Test
+	void findsGroupsWithoutExactlyCancellingPairs() {
+		long[] balances = {-500, 200, 300, -400, 100, 300};
+
+		SettlementStrategy.Result result = optimal.settle(names(6), balances, noDeadline());
+
+		assertThat(result.transfers()).hasSize(4);
+		assertSettles(balances, result.transfers());
+	}
+
+	@Test
+	void fallsBackToBestEffortWhenBudgetIsExhausted() {
+		Random random = new Random(42);
+		long[] balances = new long[60];
+		for (int i = 0; i < balances.length - 1; i++) {
+			balances[i] = random.nextInt(20_000) - 10_000;
+			balances[balances.length - 1] -= balances[i];
+		}
+
+		SettlementStrategy.Result result = optimal.settle(names(60), balances, System.nanoTime());
+
+		assertThat(result.complete()).isFalse();
+		assertSettles(balances, result.transfers());
+	}
+
+	private static void assertSettles(long[] balances, List<Transfer> transfers) {
+		Map<String, Long> remaining = new HashMap<>();
+		for (int i = 0; i < balances.length; i++) {
+			remaining.put("p" + i, balances[i]);
+		}
+		for (Transfer t : transfers) {
+			assertThat(t.amountCents()).isPositive();
+			remaining.merge(t.getFrom(), t.amountCents(), Long::sum);
+			remaining.merge(t.getTo(), -t.amountCents(), Long::sum);
+		}
+		assertThat(remaining.values()).allMatch(v -> v == 0);
+	}
+
+	private static List<String> names(int n) {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			names.add("p" + i);
+		}
+		return names;
+	}
+
+	private static long noDeadline() {
+		return Long.MAX_VALUE;
+	}
+}
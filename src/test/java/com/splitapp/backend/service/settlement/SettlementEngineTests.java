@@ -0,0 +1,72 @@
+package com.splitapp.backend.service.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SettlementEngineTests {
+
+	private final SettlementEngine engine = new SettlementEngine(
+			List.of(new GreedySettlementStrategy(), new MinTransfersSettlementStrategy()), Duration.ofSeconds(5), 4);
+
+	@Test
+	void settlesComponentsInParallelWithoutCrossComponentTransfers() {
+		List<Map<String, Long>> components = new ArrayList<>();
+		for (int c = 0; c < 500; c++) {
+			// Households of four: one payer covering three others
+			components.add(Map.of(
+					"h" + c + "-payer", 3000L,
+					"h" + c + "-a", -1000L,
+					"h" + c + "-b", -1000L,
+					"h" + c + "-c", -1000L));
+		}
+
+		SettlementReport report = engine.settle("greedy", components);
+
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getTransfers()).hasSize(1500);
+		assertThat(report.getTransfers()).allSatisfy(t ->
+				assertThat(household(t.getFrom())).isEqualTo(household(t.getTo())));
+	}
+
+	@Test
+	void sharesTheBudgetBetweenComponentsSolvedInTurn() {
+		List<Long> budgets = new ArrayList<>();
+		SettlementStrategy slow = new SettlementStrategy() {
+			@Override
+			public String name() {
+				return "slow";
+			}
+
+			@Override
+			public Result settle(List<String> names, long[] balances, long deadlineNanos) {
+				budgets.add(deadlineNanos - System.nanoTime());
+				while (System.nanoTime() < deadlineNanos) {
+					Thread.onSpinWait(); // Uses all the time it is given
+				}
+				return new Result(List.of(), false);
+			}
+		};
+		SettlementEngine timed = new SettlementEngine(List.of(slow), Duration.ofMillis(300), 1);
+
+		timed.settle("slow", List.of(Map.of("a", 10L, "b", -10L), Map.of("c", 10L, "d", -10L), Map.of("e", 10L, "f", -10L)));
+
+		// A third of the budget each, rather than all of it for the first and nothing for the others
+		assertThat(budgets).hasSize(3).allSatisfy(budget ->
+				assertThat(budget).isBetween(Duration.ofMillis(50).toNanos(), Duration.ofMillis(150).toNanos()));
+	}
+
+	@Test
+	void rejectsUnknownStrategy() {
+		assertThatThrownBy(() -> engine.settle("fastest", Map.of()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String household(String name) {
+		return name.substring(0, name.indexOf('-'));
+	}
+}
@@ -0,0 +1,43 @@
+package com.splitapp.backend.startup;
+
+import com.splitapp.backend.datasource.ReadReplicaDataSourceConfig;
+import com.splitapp.backend.service.ExpenseIngestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AotSettingsCheckTests {
+
+	@Test
+	void passesWhenBeansMatchTheSettings() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("expenseIngestService", new RootBeanDefinition(ExpenseIngestService.class));
+		MockEnvironment environment = new MockEnvironment().withProperty("splitapp.ingest.enabled", "true");
+
+		assertThatCode(() -> new AotSettingsCheck(beanFactory, environment).afterSingletonsInstantiated()).doesNotThrowAnyException();
+	}
+
+	@Test
+	void failsWhenASettingIsTurnedOnAfterTheBuild() {
+		MockEnvironment environment = new MockEnvironment().withProperty("splitapp.datasource.replica.url", "jdbc:postgresql://replica/db");
+
+		assertThatThrownBy(() -> new AotSettingsCheck(new DefaultListableBeanFactory(), environment).afterSingletonsInstantiated())
+				.isInstanceOf(IllegalStateException.class).hasMessageContaining("splitapp.datasource.replica.url is on");
+	}
+
+	@Test
+	void failsWhenASettingIsTurnedOffAfterTheBuild() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("readReplicaDataSourceConfig", new RootBeanDefinition(ReadReplicaDataSourceConfig.class));
+		beanFactory.registerBeanDefinition("expenseIngestService", new RootBeanDefinition(ExpenseIngestService.class));
+		MockEnvironment environment = new MockEnvironment().withProperty("splitapp.datasource.replica.url", "jdbc:postgresql://replica/db")
+				.withProperty("splitapp.ingest.enabled", "false");
+
+		assertThatThrownBy(() -> new AotSettingsCheck(beanFactory, environment).afterSingletonsInstantiated())
+				.isInstanceOf(IllegalStateException.class).hasMessageContaining("splitapp.ingest.enabled is off");
+	}
+}
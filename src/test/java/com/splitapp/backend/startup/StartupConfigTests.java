@@ -0,0 +1,49 @@
+package com.splitapp.backend.startup;
+
+import com.splitapp.backend.PostgresTestSupport;
+import com.splitapp.backend.controller.ExpenseController;
+import com.splitapp.backend.service.BalanceFeedService;
+import com.splitapp.backend.service.BalanceLedgerService;
+import com.splitapp.backend.service.CsvTransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.main.lazy-initialization=true")
+@AutoConfigureMockMvc
+class StartupConfigTests extends PostgresTestSupport {
+
+	@Autowired
+	private ConfigurableListableBeanFactory beanFactory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void lazyInitializationKeepsControllersAndScheduledBeansEager() {
+		assertThat(isLazy(ExpenseController.class)).isFalse();
+		assertThat(isLazy(BalanceFeedService.class)).isFalse();
+		assertThat(isLazy(BalanceLedgerService.class)).isFalse();
+		// Marked lazy, though still created at startup when an eager controller depends on it
+		assertThat(isLazy(CsvTransferService.class)).isTrue();
+		assertThat(isLazy(AotSettingsCheck.class)).isFalse();
+	}
+
+	@Test
+	void requestsAreServedWithLazyInitialization() throws Exception {
+		mockMvc.perform(get("/expenses/balances")).andExpect(status().isOk());
+	}
+
+	private boolean isLazy(Class<?> type) {
+		String[] names = beanFactory.getBeanNamesForType(type, true, false);
+		assertThat(names).hasSize(1);
+		return beanFactory.getBeanDefinition(names[0]).isLazyInit();
+	}
+}